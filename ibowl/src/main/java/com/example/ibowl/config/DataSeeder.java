@@ -180,7 +180,8 @@ public class DataSeeder implements CommandLineRunner {
         // Create bookings for the past 30 days and next 30 days
         LocalDateTime now = LocalDateTime.now();
         
-        for (int i = 0; i < 50; i++) {
+        int attempts = 0;
+        while (bookings.size() < 50 && attempts++ < 500) {
             // Random date within ±30 days
             LocalDateTime bookingDate = now.plusDays(random.nextInt(61) - 30);
             
@@ -202,6 +203,11 @@ public class DataSeeder implements CommandLineRunner {
             BigDecimal basePrice = new BigDecimal("25.00"); // $25 per hour
             BigDecimal totalPrice = basePrice.multiply(BigDecimal.valueOf(durationHours));
             
+            // Lanes cannot be double booked, pick another slot if this one is taken
+            if (overlapsExisting(bookings, lane, startTime, endTime)) {
+                continue;
+            }
+            
             // Random status (mostly confirmed, some pending, few cancelled)
             BookingStatus status;
             int statusRoll = random.nextInt(100);
@@ -228,12 +234,20 @@ public class DataSeeder implements CommandLineRunner {
         return bookingRepository.saveAll(bookings);
     }
 
+    private boolean overlapsExisting(List<Booking> bookings, Lane lane, LocalDateTime startTime, LocalDateTime endTime) {
+        return bookings.stream().anyMatch(other -> other.getLane() == lane
+            && other.getStatus() != BookingStatus.CANCELLED
+            && other.getStartTime().isBefore(endTime)
+            && startTime.isBefore(other.getEndTime()));
+    }
+
     private void createGames(List<Booking> bookings) {
         // Only create games for confirmed bookings
         List<Booking> confirmedBookings = bookings.stream()
             .filter(booking -> booking.getStatus() == BookingStatus.CONFIRMED)
             .toList();
         
+        List<Game> games = new ArrayList<>();
         for (Booking booking : confirmedBookings) {
             // Create 1-3 games per booking
             int numGames = 1 + random.nextInt(3);
@@ -249,8 +263,10 @@ public class DataSeeder implements CommandLineRunner {
                 game.setPlayer5Score(random.nextInt(300));
                 game.setPlayer6Score(random.nextInt(300));
                 
-                gameRepository.save(game);
+                games.add(game);
             }
         }
+        // One batched insert instead of a round trip per game
+        gameRepository.saveAll(games);
     }
 } 
\ No newline at end of file
@@ -1,11 +1,25 @@
 package com.example.ibowl.controller;
 
+import com.example.ibowl.dto.request.RecurringBookingRequest;
+import com.example.ibowl.dto.response.KeysetPage;
 import com.example.ibowl.entity.*;
+import com.example.ibowl.exception.ResourceNotFoundException;
+import com.example.ibowl.exception.TooManyRequestsException;
+import com.example.ibowl.security.UserPrincipalCache;
 import com.example.ibowl.service.*;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Valid;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -30,36 +44,77 @@ public class AdminController {
     @Autowired
     private LaneService laneService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private SettingsService settingsService;
+
+    @Autowired
+    private RecurringBookingService recurringBookingService;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     // Dashboard Statistics
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
+        // Total users, total bookings, total revenue and active (confirmed) bookings
+        return ResponseEntity.ok(dashboardStatsService.getStats());
+    }
+
+    // Cache hit/miss/eviction counters
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
         Map<String, Object> stats = new HashMap<>();
-        
-        // Get total users
-        long totalUsers = userService.countAllUsers();
-        stats.put("totalUsers", totalUsers);
-        
-        // Get total bookings
-        long totalBookings = bookingService.countAllBookings();
-        stats.put("totalBookings", totalBookings);
-        
-        // Get total revenue
-        BigDecimal totalRevenue = bookingService.getTotalRevenue();
-        stats.put("totalRevenue", totalRevenue);
-        
-        // Get active bookings (confirmed)
-        long activeBookings = bookingService.countActiveBookings();
-        stats.put("activeBookings", activeBookings);
-        
+        stats.put("users", userPrincipalCache.getStats());
+        stats.put("secondLevel", secondLevelCacheStats());
         return ResponseEntity.ok(stats);
     }
 
+    private Map<String, Object> secondLevelCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new HashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats == null) {
+                continue;
+            }
+            Map<String, Object> regionMap = new HashMap<>();
+            regionMap.put("hits", regionStats.getHitCount());
+            regionMap.put("misses", regionStats.getMissCount());
+            regionMap.put("puts", regionStats.getPutCount());
+            regionMap.put("size", regionStats.getElementCountInMemory());
+            regions.put(region, regionMap);
+        }
+        Map<String, Object> queryCache = new HashMap<>();
+        queryCache.put("hits", statistics.getQueryCacheHitCount());
+        queryCache.put("misses", statistics.getQueryCacheMissCount());
+        queryCache.put("puts", statistics.getQueryCachePutCount());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("regions", regions);
+        result.put("queries", queryCache);
+        result.put("statementsPrepared", statistics.getPrepareStatementCount());
+        return result;
+    }
+
     // User Management
     @GetMapping("/users")
-    public ResponseEntity<List<Map<String, Object>>> getAllUsers(@RequestParam(required = false) String email) {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String email,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "100") int limit,
+                                         @RequestParam(required = false) String role) {
         System.out.println("AdminController: getAllUsers called with email: " + email);
         
         List<User> users;
+        String nextCursor = null;
         if (email != null && !email.trim().isEmpty()) {
             // Search by email
             System.out.println("AdminController: Searching for user with email: " + email);
@@ -70,16 +125,22 @@ public class AdminController {
                 System.out.println("AdminController: Found user: " + users.get(0).getEmail() + " - " + users.get(0).getFirstName() + " " + users.get(0).getLastName());
             }
         } else {
-            // Get all users
-            System.out.println("AdminController: Getting all users");
-            users = userService.getAllUsers();
-            System.out.println("AdminController: Found " + users.size() + " total users");
+            // Get one page of users, oldest first
+            KeysetPage<User> page;
+            try {
+                page = userService.findPage(cursor, limit, role);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+            users = page.items();
+            nextCursor = page.nextCursor();
+            System.out.println("AdminController: Found " + users.size() + " users in page");
         }
         
         List<Map<String, Object>> userList = users.stream()
             .map(this::convertUserToMap)
             .collect(Collectors.toList());
-        return ResponseEntity.ok(userList);
+        return withNextCursor(nextCursor).body(userList);
     }
 
     @PostMapping("/users")
@@ -87,6 +148,10 @@ public class AdminController {
         try {
             User user = userService.createUserFromAdmin(userData);
             return ResponseEntity.ok(convertUserToMap(user));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             Map<String, Object> error = new HashMap<>();
@@ -138,12 +203,36 @@ public class AdminController {
 
     // Booking Management
     @GetMapping("/bookings")
-    public ResponseEntity<List<Map<String, Object>>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
-        List<Map<String, Object>> bookingList = bookings.stream()
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "100") int limit,
+                                            @RequestParam(required = false) String status,
+                                            @RequestParam(required = false) Long laneId,
+                                            @RequestParam(required = false) String from,
+                                            @RequestParam(required = false) String to) {
+        KeysetPage<Booking> page;
+        try {
+            page = bookingService.findPage(cursor, limit, status, laneId, from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        List<Map<String, Object>> bookingList = page.items().stream()
             .map(this::convertBookingToMap)
             .collect(Collectors.toList());
-        return ResponseEntity.ok(bookingList);
+        return withNextCursor(page.nextCursor()).body(bookingList);
+    }
+
+    /**
+     * Streams every booking as NDJSON (default) or CSV without loading them all in memory.
+     */
+    @GetMapping("/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = BookingExportService.FORMAT_CSV.equalsIgnoreCase(format);
+        String exportFormat = csv ? BookingExportService.FORMAT_CSV : BookingExportService.FORMAT_NDJSON;
+        StreamingResponseBody body = out -> bookingExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings." + exportFormat + "\"")
+            .body(body);
     }
 
     @PostMapping("/bookings")
@@ -152,6 +241,25 @@ public class AdminController {
         return ResponseEntity.ok(convertBookingToMap(booking));
     }
 
+    /**
+     * Books the same time on one or more lanes every {@code intervalWeeks} weeks.
+     * Occurrences that clash with existing bookings are skipped and listed in the response.
+     */
+    @PostMapping("/bookings/recurring")
+    public ResponseEntity<Map<String, Object>> createRecurringBookings(@Valid @RequestBody RecurringBookingRequest request) {
+        try {
+            return ResponseEntity.ok(recurringBookingService.createSeries(request));
+        } catch (ResourceNotFoundException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @PutMapping("/bookings/{bookingId}")
     public ResponseEntity<Map<String, Object>> updateBooking(@PathVariable Long bookingId, @RequestBody Map<String, Object> bookingData) {
         Booking booking = bookingService.updateBookingFromAdmin(bookingId, bookingData);
@@ -210,13 +318,15 @@ public class AdminController {
         long newCustomers = userService.countNewCustomers(startDate);
         reportData.put("customerCount", customerCount);
         reportData.put("newCustomers", newCustomers);
+        // a booking change failed to reach the rollup and has not been repaired yet
+        reportData.put("stale", bookingService.isReportDataStale());
         
         return ResponseEntity.ok(reportData);
     }
 
     @GetMapping("/reports/lane-performance")
-    public ResponseEntity<List<Map<String, Object>>> getLanePerformance() {
-        List<Map<String, Object>> lanePerformance = laneService.getLanePerformance();
+    public ResponseEntity<List<Map<String, Object>>> getLanePerformance(@RequestParam(defaultValue = "month") String period) {
+        List<Map<String, Object>> lanePerformance = laneService.getLanePerformance(getStartDateForPeriod(period), LocalDateTime.now());
         return ResponseEntity.ok(lanePerformance);
     }
 
@@ -229,25 +339,29 @@ public class AdminController {
     // Settings
     @GetMapping("/settings")
     public ResponseEntity<Map<String, Object>> getSettings() {
-        // Return default settings - in a real app, these would come from a settings service
-        Map<String, Object> settings = new HashMap<>();
-        settings.put("businessName", "iBowl Bowling Center");
-        settings.put("businessHours", "10:00 AM - 10:00 PM");
-        settings.put("lanePrice", "25.00");
-        settings.put("maxPlayers", 6);
-        settings.put("bookingAdvanceDays", 30);
-        settings.put("autoConfirmBookings", true);
-        settings.put("sendNotifications", true);
-        return ResponseEntity.ok(settings);
+        return ResponseEntity.ok(settingsService.getSettings());
     }
 
     @PutMapping("/settings")
     public ResponseEntity<Map<String, Object>> updateSettings(@RequestBody Map<String, Object> settings) {
-        // In a real app, this would save to a settings service
-        return ResponseEntity.ok(settings);
+        try {
+            return ResponseEntity.ok(settingsService.updateSettings(settings));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
     }
 
     // Helper methods
+    private ResponseEntity.BodyBuilder withNextCursor(String nextCursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(BookingController.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response;
+    }
+
     private Map<String, Object> convertUserToMap(User user) {
         Map<String, Object> userMap = new HashMap<>();
         userMap.put("id", user.getId());
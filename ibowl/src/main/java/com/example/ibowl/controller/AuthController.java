@@ -7,11 +7,18 @@ import com.example.ibowl.dto.response.JwtResponse;
 import com.example.ibowl.dto.response.UserResponse;
 import com.example.ibowl.entity.User;
 import com.example.ibowl.entity.Role;
+import com.example.ibowl.exception.TooManyRequestsException;
+import com.example.ibowl.security.GoogleIdTokenService;
 import com.example.ibowl.security.JwtTokenProvider;
+import com.example.ibowl.security.LoginRateLimiter;
+import com.example.ibowl.security.RefreshTokenService;
+import com.example.ibowl.security.TokenRevocationStore;
 import com.example.ibowl.security.UserPrincipal;
+import com.example.ibowl.security.UserPrincipalCache;
 import com.example.ibowl.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,15 +31,11 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.jackson2.JacksonFactory;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,16 +59,35 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private GoogleIdTokenService googleIdTokenService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     /**
      * Login endpoint for email/password authentication
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        if (!loginRateLimiter.tryAcquire(request.getEmail(), httpRequest.getRemoteAddr())) {
+            logger.warn("Login rate limited for email: {}", request.getEmail());
+            return tooManyRequests("Too many login attempts, try again later", loginRateLimiter.getRetryAfterSeconds());
+        }
         try {
             logger.info("Login attempt for email: {}", request.getEmail());
             
-            // Check if user exists first
-            if (!userService.existsByEmail(request.getEmail())) {
+            // Check if user exists first, the authentication below reuses the cached user
+            if (userPrincipalCache.get(request.getEmail()) == null) {
                 logger.warn("Login failed: User not found - {}", request.getEmail());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(createErrorResponse("Invalid email or password"));
@@ -79,11 +101,12 @@ public class AuthController {
             User user = userPrincipal.getUser();
             
             // Generate JWT token
-            String token = jwtTokenProvider.generateToken(userPrincipal.getUsername());
+            String token = jwtTokenProvider.generateToken(user);
             
             // Create response
             JwtResponse response = new JwtResponse();
             response.setToken(token);
+            response.setRefreshToken(refreshTokenService.issue(user));
             response.setType("Bearer");
             response.setRole(user.getRole().name());
             response.setEmail(user.getEmail());
@@ -91,6 +114,10 @@ public class AuthController {
             logger.info("Login successful for user: {} with role: {}", request.getEmail(), user.getRole());
             return ResponseEntity.ok(response);
                 
+        } catch (TooManyRequestsException e) {
+            // thrown by the bounded password encoder, which the authentication manager does not wrap
+            logger.debug("Login shed, password hashing saturated: {}", request.getEmail());
+            return tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
         } catch (Exception e) {
             logger.error("Login error for email {}: {}", request.getEmail(), e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -98,11 +125,39 @@ public class AuthController {
         }
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and a rotated refresh token.
+     * No password is checked, the refresh token is looked up by its hash.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> payload) {
+        String refreshToken = payload.get("refreshToken");
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.badRequest().body(createErrorResponse("Missing refreshToken"));
+        }
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        if (rotation == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(createErrorResponse("Invalid or expired refresh token"));
+        }
+        User user = rotation.user();
+        JwtResponse response = new JwtResponse();
+        response.setToken(jwtTokenProvider.generateToken(user));
+        response.setRefreshToken(rotation.refreshToken());
+        response.setType("Bearer");
+        response.setRole(user.getRole().name());
+        response.setEmail(user.getEmail());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Register new user (customer role by default)
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        if (!loginRateLimiter.tryAcquire(null, httpRequest.getRemoteAddr())) {
+            return tooManyRequests("Too many requests, try again later", loginRateLimiter.getRetryAfterSeconds());
+        }
         try {
             logger.info("Registration attempt for email: {}", request.getEmail());
             
@@ -130,6 +185,8 @@ public class AuthController {
             logger.info("User registered successfully: {}", savedUser.getEmail());
             return ResponseEntity.ok(response);
             
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
         } catch (Exception e) {
             logger.error("Registration error for email {}: {}", request.getEmail(), e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -169,6 +226,8 @@ public class AuthController {
             logger.info("Admin user created successfully: {}", savedUser.getEmail());
             return ResponseEntity.ok(response);
             
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
         } catch (Exception e) {
             logger.error("Admin creation error for email {}: {}", request.getEmail(), e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -192,14 +251,7 @@ public class AuthController {
         try {
             logger.info("Google OAuth2 login attempt");
             
-            // Verify Google ID token
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    GoogleNetHttpTransport.newTrustedTransport(),
-                    JacksonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList("114463283400-ab1ldu42nao93fauu9po8rcg9on8cln7.apps.googleusercontent.com"))
-                    .build();
-                    
-            GoogleIdToken idToken = verifier.verify(idTokenString);
+            GoogleIdToken idToken = googleIdTokenService.verify(idTokenString);
             
             if (idToken != null) {
                 GoogleIdToken.Payload googlePayload = idToken.getPayload();
@@ -234,10 +286,11 @@ public class AuthController {
                 }
                 
                 // Generate JWT for your app
-                String jwt = jwtTokenProvider.generateToken(user.getEmail());
+                String jwt = jwtTokenProvider.generateToken(user);
                 
                 Map<String, Object> response = new HashMap<>();
                 response.put("token", jwt);
+                response.put("refreshToken", refreshTokenService.issue(user));
                 response.put("type", "Bearer");
                 response.put("email", user.getEmail());
                 response.put("role", user.getRole().name());
@@ -307,7 +360,8 @@ public class AuthController {
                     .body(createErrorResponse("Authentication required"));
             }
             
-            User user = userPrincipal.getUser();
+            // Fresh copy, the principal's user may be shared with other requests
+            User user = userService.findById(userPrincipal.getUserId()).orElse(null);
             if (user == null) {
                 logger.warn("User not found for update");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -348,6 +402,8 @@ public class AuthController {
             logger.info("User updated successfully: {}", savedUser.getEmail());
             return ResponseEntity.ok(response);
             
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
         } catch (Exception e) {
             logger.error("Error updating user: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -367,12 +423,28 @@ public class AuthController {
     }
 
     /**
-     * Logout endpoint (invalidate token on client side)
+     * Logout endpoint, open without authentication since the access token may already
+     * have expired. Revokes the family of the refresh token sent in the body, and the
+     * bearer token until it expires when one is presented.
      */
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, String>> logout() {
-        // Since we're using stateless JWT, logout is handled client-side
-        // You could implement token blacklisting here if needed
+    public ResponseEntity<Map<String, String>> logout(HttpServletRequest request,
+                                                      @RequestBody(required = false) Map<String, String> payload) {
+        String refreshToken = payload != null ? payload.get("refreshToken") : null;
+        String header = request.getHeader("Authorization");
+        boolean bearer = header != null && header.startsWith("Bearer ");
+        if ((refreshToken == null || refreshToken.isBlank()) && !bearer) {
+            return ResponseEntity.badRequest().body(createErrorResponse("Missing refreshToken"));
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (bearer) {
+            JwtTokenProvider.TokenClaims claims = jwtTokenProvider.parseToken(header.substring(7));
+            if (claims != null) {
+                tokenRevocationStore.revoke(claims.jti(), claims.expiresAt());
+            }
+        }
         Map<String, String> response = new HashMap<>();
         response.put("message", "Logged out successfully");
         return ResponseEntity.ok(response);
@@ -395,6 +467,15 @@ public class AuthController {
         return response;
     }
 
+    /**
+     * 429 response telling the client when to retry
+     */
+    private ResponseEntity<Map<String, String>> tooManyRequests(String message, long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(createErrorResponse(message));
+    }
+
     /**
      * Create standardized error response
      */
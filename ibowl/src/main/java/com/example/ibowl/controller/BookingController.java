@@ -2,33 +2,92 @@ package com.example.ibowl.controller;
 
 import com.example.ibowl.dto.request.BookingRequest;
 import com.example.ibowl.dto.response.BookingResponse;
+import com.example.ibowl.dto.response.KeysetPage;
 import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
 import com.example.ibowl.entity.Lane;
 import com.example.ibowl.entity.User;
+import com.example.ibowl.exception.BookingConflictException;
+import com.example.ibowl.exception.ResourceNotFoundException;
 import com.example.ibowl.service.BookingService;
 import com.example.ibowl.service.LaneService;
+import com.example.ibowl.service.PricingEngine;
 import com.example.ibowl.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private BookingService bookingService;
     @Autowired
     private UserService userService;
     @Autowired
     private LaneService laneService;
+    @Autowired
+    private PricingEngine pricingEngine;
 
+    /**
+     * Lists bookings in start time order, one page at a time. When more rows follow,
+     * the cursor for the next page is returned in the X-Next-Cursor header.
+     */
     @GetMapping
-    public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        List<Booking> bookings = bookingService.findAll();
-        List<BookingResponse> responses = bookings.stream().map(this::toResponse).collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "100") int limit,
+                                            @RequestParam(required = false) String status,
+                                            @RequestParam(required = false) Long laneId,
+                                            @RequestParam(required = false) String from,
+                                            @RequestParam(required = false) String to) {
+        KeysetPage<Booking> page;
+        try {
+            page = bookingService.findPage(cursor, limit, status, laneId, from, to);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        List<BookingResponse> responses = page.items().stream().map(this::toResponse).collect(Collectors.toList());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(responses);
+    }
+
+    @GetMapping("/quote")
+    public ResponseEntity<?> getQuote(@RequestParam Long laneId,
+                                      @RequestParam String startTime,
+                                      @RequestParam String endTime,
+                                      @RequestParam(defaultValue = "1") int players) {
+        Lane lane = laneService.findById(laneId).orElse(null);
+        if (lane == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Lane not found"));
+        }
+        LocalDateTime start;
+        LocalDateTime end;
+        try {
+            start = LocalDateTime.parse(startTime);
+            end = LocalDateTime.parse(endTime);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date or time: " + e.getParsedString()));
+        }
+        Map<String, Object> quote = new HashMap<>();
+        quote.put("laneId", laneId);
+        quote.put("startTime", start);
+        quote.put("endTime", end);
+        quote.put("players", players);
+        quote.put("totalPrice", pricingEngine.quote(lane.getLaneClass(), start, end, players));
+        return ResponseEntity.ok(quote);
     }
 
     @GetMapping("/{id}")
@@ -38,20 +97,42 @@ public class BookingController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Creates a booking priced by the pricing engine. Unknown users or lanes are 404,
+     * bad times or status 400, and a slot already taken on the lane 409.
+     */
     @PostMapping
-    public ResponseEntity<BookingResponse> createBooking(@RequestBody BookingRequest request) {
-        User user = userService.findById(request.getUserId()).orElseThrow();
-        Lane lane = laneService.findById(request.getLaneId()).orElseThrow();
-        Booking booking = new Booking();
-        booking.setUser(user);
-        booking.setLane(lane);
-        booking.setStartTime(request.getStartTime());
-        booking.setEndTime(request.getEndTime());
-        booking.setPlayers(request.getPlayers());
-        booking.setTotalPrice(request.getTotalPrice());
-        booking.setStatus(request.getStatus() != null ? com.example.ibowl.entity.BookingStatus.valueOf(request.getStatus()) : com.example.ibowl.entity.BookingStatus.PENDING);
-        Booking saved = bookingService.save(booking);
-        return ResponseEntity.ok(toResponse(saved));
+    public ResponseEntity<?> createBooking(@Valid @RequestBody BookingRequest request) {
+        try {
+            User user = userService.findById(request.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            Lane lane = laneService.findById(request.getLaneId())
+                .orElseThrow(() -> new ResourceNotFoundException("Lane not found"));
+            Booking booking = new Booking();
+            booking.setUser(user);
+            booking.setLane(lane);
+            booking.setStartTime(request.getStartTime());
+            booking.setEndTime(request.getEndTime());
+            booking.setPlayers(request.getPlayers());
+            booking.setTotalPrice(pricingEngine.quote(lane.getLaneClass(), request.getStartTime(), request.getEndTime(), request.getPlayers()));
+            booking.setStatus(request.getStatus() != null ? parseStatus(request.getStatus()) : BookingStatus.PENDING);
+            Booking saved = bookingService.save(booking);
+            return ResponseEntity.ok(toResponse(saved));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static BookingStatus parseStatus(String value) {
+        try {
+            return BookingStatus.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown booking status: " + value);
+        }
     }
 
     private BookingResponse toResponse(Booking booking) {
@@ -0,0 +1,67 @@
+package com.example.ibowl.controller;
+
+import com.example.ibowl.entity.Game;
+import com.example.ibowl.service.GameService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/games")
+public class GameController {
+    @Autowired
+    private GameService gameService;
+
+    /**
+     * Starts a game: {@code {"bookingId": 12, "players": 4}}.
+     */
+    @PostMapping
+    public ResponseEntity<?> startGame(@RequestBody Map<String, Object> request) {
+        Object bookingId = request.get("bookingId");
+        Object players = request.get("players");
+        if (bookingId == null || players == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "bookingId and players are required"));
+        }
+        long booking;
+        int playerCount;
+        try {
+            booking = Long.parseLong(bookingId.toString());
+            playerCount = Integer.parseInt(players.toString());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "bookingId and players must be whole numbers"));
+        }
+        try {
+            Game game = gameService.startGame(booking, playerCount);
+            return ResponseEntity.ok(gameService.getScores(game.getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getScores(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(gameService.getScores(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Records one ball: {@code {"player": 1, "pins": 7}}, players numbered from 1.
+     */
+    @PostMapping("/{id}/rolls")
+    public ResponseEntity<?> recordRoll(@PathVariable Long id, @RequestBody Map<String, Integer> request) {
+        Integer player = request.get("player");
+        Integer pins = request.get("pins");
+        if (player == null || pins == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "player and pins are required"));
+        }
+        try {
+            return ResponseEntity.ok(gameService.recordRoll(id, player - 1, pins));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package com.example.ibowl.controller;
 
 import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.event.LaneBoardEvent;
+import com.example.ibowl.exception.ResourceNotFoundException;
+import com.example.ibowl.service.LaneBoardBroadcaster;
 import com.example.ibowl.service.LaneService;
+import com.example.ibowl.service.LaneStateBoard;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/lanes")
@@ -13,11 +28,84 @@ public class LaneController {
     @Autowired
     private LaneService laneService;
 
+    @Autowired
+    private LaneBoardBroadcaster laneBoardBroadcaster;
+
+    @Autowired
+    private LaneStateBoard laneStateBoard;
+
     @GetMapping
     public ResponseEntity<List<Lane>> getAllLanes() {
         return ResponseEntity.ok(laneService.findAll());
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> getAvailability(@RequestParam String date,
+                                                               @RequestParam String from,
+                                                               @RequestParam String to,
+                                                               @RequestParam(defaultValue = "1") int players) {
+        try {
+            return ResponseEntity.ok(laneService.findFreeLanes(
+                LocalDate.parse(date), LocalTime.parse(from), LocalTime.parse(to), players));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid date or time: " + e.getParsedString()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Live lane board: current lane states, then status and booking deltas as they happen.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LaneBoardEvent>> streamLaneBoard() {
+        return laneBoardBroadcaster.subscribe();
+    }
+
+    /**
+     * Lane states from the in-memory board. With {@code since}, only lanes changed after
+     * that version are returned, unless the change log no longer covers it.
+     */
+    @GetMapping("/states")
+    public ResponseEntity<Map<String, Object>> getLaneStates(@RequestParam(required = false) Long since) {
+        Map<String, Object> response = new HashMap<>();
+        LaneStateBoard.Changes changes = since != null ? laneStateBoard.changesSince(since) : null;
+        response.put("full", changes == null);
+        if (changes != null) {
+            response.put("version", changes.version());
+            response.put("lanes", changes.lanes());
+        } else {
+            // read before the lanes, so they are at least this new
+            response.put("version", laneStateBoard.version());
+            response.put("lanes", laneService.getLaneStates());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Front desk status change: {@code {"status": "OCCUPIED", "expected": "AVAILABLE"}}, staff and admins only.
+     */
+    @PutMapping("/{id}/status")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<?> updateLaneStatus(@PathVariable Long id, @RequestBody Map<String, String> request) {
+        if (request.get("status") == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid lane status"));
+        }
+        try {
+            LaneStatus status = LaneStatus.valueOf(request.get("status"));
+            LaneStatus expected = request.get("expected") != null ? LaneStatus.valueOf(request.get("expected")) : null;
+            LaneStateBoard.LaneState updated = laneService.updateStatus(id, expected, status);
+            if (updated == null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Lane status has changed"));
+            }
+            return ResponseEntity.ok(updated);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid lane status"));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Lane> getLane(@PathVariable Long id) {
         return laneService.findById(id)
@@ -0,0 +1,66 @@
+package com.example.ibowl.controller;
+
+import com.example.ibowl.dto.request.WaitlistRequest;
+import com.example.ibowl.entity.WaitlistEntry;
+import com.example.ibowl.exception.ResourceNotFoundException;
+import com.example.ibowl.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @PostMapping
+    public ResponseEntity<?> joinWaitlist(@Valid @RequestBody WaitlistRequest request) {
+        try {
+            return ResponseEntity.ok(convertEntryToMap(waitlistService.join(request)));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getWaitlistEntries(@RequestParam Long userId) {
+        return ResponseEntity.ok(waitlistService.findByUser(userId).stream()
+            .map(this::convertEntryToMap)
+            .collect(Collectors.toList()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> leaveWaitlist(@PathVariable Long id) {
+        try {
+            waitlistService.leave(id);
+            return ResponseEntity.ok(Map.of("message", "Waitlist entry withdrawn"));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> convertEntryToMap(WaitlistEntry entry) {
+        Map<String, Object> entryMap = new HashMap<>();
+        entryMap.put("id", entry.getId());
+        entryMap.put("laneId", entry.getLaneId());
+        entryMap.put("startTime", entry.getStartTime());
+        entryMap.put("endTime", entry.getEndTime());
+        entryMap.put("players", entry.getPlayers());
+        entryMap.put("totalPrice", entry.getTotalPrice());
+        entryMap.put("requestedAt", entry.getRequestedAt());
+        entryMap.put("status", entry.getStatus().toString());
+        entryMap.put("offeredBookingId", entry.getOfferedBookingId());
+        return entryMap;
+    }
+}
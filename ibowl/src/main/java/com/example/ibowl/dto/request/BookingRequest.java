@@ -1,5 +1,6 @@
 package com.example.ibowl.dto.request;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,8 +15,9 @@ public class BookingRequest {
     @NotNull
     private LocalDateTime endTime;
     @NotNull
+    @Min(1)
     private Integer players;
-    @NotNull
+    // Ignored: the price is computed by the pricing engine
     private BigDecimal totalPrice;
     private String status;
 
@@ -0,0 +1,50 @@
+package com.example.ibowl.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public class RecurringBookingRequest {
+    @NotNull
+    private Long userId;
+    @NotNull
+    private List<Long> laneIds;
+    @NotNull
+    private LocalDate firstDate;
+    @NotNull
+    private LocalTime startTime;
+    // an end time at or before the start time ends on the next day
+    @NotNull
+    private LocalTime endTime;
+    @NotNull
+    private Integer occurrences;
+    private Integer intervalWeeks = 1;
+    @NotNull
+    private Integer players;
+    private String status;
+    // when false, any conflict rejects the whole series
+    private Boolean skipConflicts = true;
+
+    // Getters and setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public List<Long> getLaneIds() { return laneIds; }
+    public void setLaneIds(List<Long> laneIds) { this.laneIds = laneIds; }
+    public LocalDate getFirstDate() { return firstDate; }
+    public void setFirstDate(LocalDate firstDate) { this.firstDate = firstDate; }
+    public LocalTime getStartTime() { return startTime; }
+    public void setStartTime(LocalTime startTime) { this.startTime = startTime; }
+    public LocalTime getEndTime() { return endTime; }
+    public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
+    public Integer getOccurrences() { return occurrences; }
+    public void setOccurrences(Integer occurrences) { this.occurrences = occurrences; }
+    public Integer getIntervalWeeks() { return intervalWeeks; }
+    public void setIntervalWeeks(Integer intervalWeeks) { this.intervalWeeks = intervalWeeks; }
+    public Integer getPlayers() { return players; }
+    public void setPlayers(Integer players) { this.players = players; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Boolean getSkipConflicts() { return skipConflicts; }
+    public void setSkipConflicts(Boolean skipConflicts) { this.skipConflicts = skipConflicts; }
+}
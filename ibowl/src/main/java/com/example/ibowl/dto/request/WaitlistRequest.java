@@ -0,0 +1,29 @@
+package com.example.ibowl.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+public class WaitlistRequest {
+    @NotNull
+    private Long userId;
+    // null to take whichever lane frees up first
+    private Long laneId;
+    @NotNull
+    private LocalDateTime startTime;
+    @NotNull
+    private LocalDateTime endTime;
+    @NotNull
+    private Integer players;
+
+    // Getters and setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getLaneId() { return laneId; }
+    public void setLaneId(Long laneId) { this.laneId = laneId; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+    public Integer getPlayers() { return players; }
+    public void setPlayers(Integer players) { this.players = players; }
+}
@@ -2,6 +2,7 @@ package com.example.ibowl.dto.response;
 
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private String role;
     private String email;
@@ -13,6 +14,12 @@ public class JwtResponse {
     public void setToken(String token) {
         this.token = token;
     }
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
     public String getType() {
         return type;
     }
@@ -0,0 +1,18 @@
+package com.example.ibowl.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "app_settings")
+@Getter
+@Setter
+public class AppSetting {
+    @Id
+    @Column(name = "setting_key")
+    private String key;
+
+    @Column(name = "setting_value")
+    private String value;
+}
@@ -0,0 +1,39 @@
+package com.example.ibowl.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bookings aggregated per start day, lane and status. Kept up to date
+ * incrementally on every booking write and rebuilt nightly from the bookings table.
+ */
+@Entity
+@Table(name = "booking_daily_rollup")
+@IdClass(BookingDailyRollupId.class)
+@Getter
+@Setter
+public class BookingDailyRollup {
+    @Id
+    private LocalDate day;
+
+    @Id
+    @Column(name = "lane_id")
+    private Long laneId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount = 0L;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    // Players multiplied by booked minutes; divide by 60 for player-hours
+    @Column(name = "player_minutes", nullable = false)
+    private Long playerMinutes = 0L;
+}
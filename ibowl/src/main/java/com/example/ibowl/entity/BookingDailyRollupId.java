@@ -0,0 +1,32 @@
+package com.example.ibowl.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class BookingDailyRollupId implements Serializable {
+    private LocalDate day;
+    private Long laneId;
+    private BookingStatus status;
+
+    public BookingDailyRollupId() {
+    }
+
+    public BookingDailyRollupId(LocalDate day, Long laneId, BookingStatus status) {
+        this.day = day;
+        this.laneId = laneId;
+        this.status = status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BookingDailyRollupId other)) return false;
+        return Objects.equals(day, other.day) && Objects.equals(laneId, other.laneId) && status == other.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, laneId, status);
+    }
+}
@@ -10,7 +10,8 @@ import lombok.Setter;
 @Setter
 public class Game {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "games_seq")
+    @SequenceGenerator(name = "games_seq", sequenceName = "games_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,4 +38,8 @@ public class Game {
 
     @Column(name = "player6_score")
     private Integer player6Score;
+
+    // ScoreCard rolls, 21 bytes per player; null for games recorded with final scores only
+    @Column(name = "rolls")
+    private byte[] rolls;
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.ibowl.entity;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference; // Add this
 import jakarta.persistence.*;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,13 +11,17 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+// reference data that rarely changes, served from the second-level cache
 @Entity
 @Table(name = "lanes")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 public class Lane {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lanes_seq")
+    @SequenceGenerator(name = "lanes_seq", sequenceName = "lanes_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -25,6 +30,11 @@ public class Lane {
     @Enumerated(EnumType.STRING)
     private LaneStatus status = LaneStatus.AVAILABLE;
 
+    // null on rows created before lane classes existed, priced as STANDARD
+    @Enumerated(EnumType.STRING)
+    @Column(name = "lane_class")
+    private LaneClass laneClass = LaneClass.STANDARD;
+
     @Column(name = "is_active")
     private Boolean isActive = true;
 
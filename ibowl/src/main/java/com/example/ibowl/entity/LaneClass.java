@@ -0,0 +1,6 @@
+package com.example.ibowl.entity;
+
+public enum LaneClass {
+    STANDARD,
+    PREMIUM
+}
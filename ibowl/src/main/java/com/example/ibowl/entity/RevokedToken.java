@@ -0,0 +1,19 @@
+package com.example.ibowl.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@Setter
+public class RevokedToken {
+    @Id
+    private String jti;
+
+    // once the token has expired it is rejected anyway and the row can go
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
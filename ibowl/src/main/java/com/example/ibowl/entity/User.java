@@ -16,7 +16,8 @@ import lombok.Setter;
 @Setter
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "first_name")
@@ -48,4 +49,9 @@ public class User {
 
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    // Bumped when the role or password changes; tokens issued for an older version stop working
+    @JsonIgnore
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.ibowl.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "waitlist_entries")
+@Getter
+@Setter
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entries_seq")
+    @SequenceGenerator(name = "waitlist_entries_seq", sequenceName = "waitlist_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    // null when any lane will do
+    @Column(name = "lane_id")
+    private Long laneId;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    private Integer players;
+
+    // price of the offered booking
+    @Column(name = "total_price")
+    private BigDecimal totalPrice;
+
+    @Column(name = "requested_at")
+    private LocalDateTime requestedAt;
+
+    @Enumerated(EnumType.STRING)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    // The offer is a PENDING hold booking; it lapses with the hold
+    @Column(name = "offered_booking_id")
+    private Long offeredBookingId;
+
+    @Column(name = "offered_at")
+    private LocalDateTime offeredAt;
+}
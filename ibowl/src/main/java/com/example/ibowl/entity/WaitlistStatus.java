@@ -0,0 +1,9 @@
+package com.example.ibowl.entity;
+
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED,
+    ACCEPTED,
+    EXPIRED,
+    CANCELLED
+}
@@ -0,0 +1,16 @@
+package com.example.ibowl.event;
+
+/**
+ * Published by BookingService after a booking has been created, updated or deleted.
+ * {@code before} is null for a new booking and {@code after} is null for a deleted one.
+ */
+public record BookingChangedEvent(BookingSnapshot before, BookingSnapshot after) {
+
+    public boolean isCreate() {
+        return before == null;
+    }
+
+    public boolean isDelete() {
+        return after == null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ibowl.event;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the fields of a booking that derived views care about,
+ * taken at the moment it is written.
+ */
+public record BookingSnapshot(
+        Long id,
+        Long laneId,
+        Long userId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Integer players,
+        BigDecimal totalPrice,
+        BookingStatus status,
+        LocalDateTime holdExpiresAt) {
+
+    public static BookingSnapshot of(Booking booking) {
+        return new BookingSnapshot(
+            booking.getId(),
+            booking.getLane() != null ? booking.getLane().getId() : null,
+            booking.getUser() != null ? booking.getUser().getId() : null,
+            booking.getStartTime(),
+            booking.getEndTime(),
+            booking.getPlayers(),
+            booking.getTotalPrice(),
+            booking.getStatus(),
+            booking.getHoldExpiresAt());
+    }
+
+    public BookingSnapshot withStatus(BookingStatus newStatus) {
+        return new BookingSnapshot(id, laneId, userId, startTime, endTime, players, totalPrice, newStatus,
+            newStatus == BookingStatus.PENDING ? holdExpiresAt : null);
+    }
+}
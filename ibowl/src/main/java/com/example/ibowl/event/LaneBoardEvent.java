@@ -0,0 +1,45 @@
+package com.example.ibowl.event;
+
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.LaneStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delta pushed to live lane board screens.
+ * {@code type} is LANE_STATUS, BOOKING_CHANGED, BOOKING_REMOVED, BOOKING_STARTED or BOOKING_ENDED;
+ * fields that do not apply to the type are null. RESYNC tells a screen that it missed deltas
+ * and is followed by the current LANE_STATUS of every lane.
+ */
+public record LaneBoardEvent(
+        String type,
+        Long laneId,
+        Integer laneNumber,
+        LaneStatus laneStatus,
+        Boolean laneActive,
+        Long bookingId,
+        BookingStatus bookingStatus,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        LocalDateTime at) {
+
+    public static final String LANE_STATUS = "LANE_STATUS";
+    public static final String BOOKING_CHANGED = "BOOKING_CHANGED";
+    public static final String BOOKING_REMOVED = "BOOKING_REMOVED";
+    public static final String BOOKING_STARTED = "BOOKING_STARTED";
+    public static final String BOOKING_ENDED = "BOOKING_ENDED";
+    public static final String RESYNC = "RESYNC";
+
+    /**
+     * Events with the same key supersede each other when updates are coalesced.
+     */
+    public String coalesceKey() {
+        if (LANE_STATUS.equals(type)) {
+            return type + ":" + laneId;
+        }
+        if (BOOKING_CHANGED.equals(type) || BOOKING_REMOVED.equals(type)) {
+            return "BOOKING:" + bookingId;
+        }
+        return type + ":" + laneId + ":" + startTime + ":" + endTime;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.ibowl.event;
+
+import com.example.ibowl.entity.LaneClass;
+import com.example.ibowl.entity.LaneStatus;
+
+/**
+ * Published after a lane has been saved or its status has changed.
+ */
+public record LaneChangedEvent(Long laneId, Integer number, LaneStatus status, boolean active, LaneClass laneClass) {
+}
@@ -0,0 +1,9 @@
+package com.example.ibowl.event;
+
+/**
+ * Published by UserService after a user has been created, updated or deleted.
+ * {@code email} is the address the user had before the change, when known.
+ * {@code tokenVersion} is the user's token version after the change, null once deleted.
+ */
+public record UserChangedEvent(Long userId, String email, Integer tokenVersion) {
+}
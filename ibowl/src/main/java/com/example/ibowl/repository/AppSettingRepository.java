@@ -0,0 +1,7 @@
+package com.example.ibowl.repository;
+
+import com.example.ibowl.entity.AppSetting;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AppSettingRepository extends JpaRepository<AppSetting, String> {
+}
@@ -0,0 +1,56 @@
+package com.example.ibowl.repository;
+
+import com.example.ibowl.entity.BookingDailyRollup;
+import com.example.ibowl.entity.BookingDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BookingDailyRollupRepository extends JpaRepository<BookingDailyRollup, BookingDailyRollupId> {
+    @Modifying
+    @Query(nativeQuery = true, value =
+        "INSERT INTO booking_daily_rollup (day, lane_id, status, booking_count, revenue, player_minutes) " +
+        "VALUES (:day, :laneId, :status, :count, :revenue, :playerMinutes) " +
+        "ON CONFLICT (day, lane_id, status) DO UPDATE SET " +
+        "booking_count = booking_daily_rollup.booking_count + EXCLUDED.booking_count, " +
+        "revenue = booking_daily_rollup.revenue + EXCLUDED.revenue, " +
+        "player_minutes = booking_daily_rollup.player_minutes + EXCLUDED.player_minutes")
+    void addDelta(@Param("day") LocalDate day, @Param("laneId") Long laneId, @Param("status") String status,
+                  @Param("count") long count, @Param("revenue") BigDecimal revenue,
+                  @Param("playerMinutes") long playerMinutes);
+
+    // Transaction-scoped advisory lock on the rollup: deltas share it, a rebuild takes it alone
+    @Query(nativeQuery = true, value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(hashtext('booking_daily_rollup'))) l")
+    Integer lockForDelta();
+
+    @Query(nativeQuery = true, value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('booking_daily_rollup'))) l")
+    Integer lockForRebuild();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM booking_daily_rollup")
+    void deleteAllRows();
+
+    @Modifying
+    @Query(nativeQuery = true, value =
+        "INSERT INTO booking_daily_rollup (day, lane_id, status, booking_count, revenue, player_minutes) " +
+        "SELECT CAST(start_time AS date), COALESCE(lane_id, 0), status, COUNT(*), COALESCE(SUM(total_price), 0), " +
+        "COALESCE(SUM(COALESCE(players, 0) * CAST(EXTRACT(EPOCH FROM (end_time - start_time)) / 60 AS bigint)), 0) " +
+        "FROM bookings WHERE start_time IS NOT NULL AND end_time IS NOT NULL AND status IS NOT NULL " +
+        "GROUP BY CAST(start_time AS date), COALESCE(lane_id, 0), status")
+    void rebuildFromBookings();
+
+    @Query("SELECT COALESCE(SUM(r.bookingCount), 0) FROM BookingDailyRollup r WHERE r.day BETWEEN :fromDay AND :toDay")
+    long sumBookingCount(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM BookingDailyRollup r WHERE r.day BETWEEN :fromDay AND :toDay")
+    BigDecimal sumRevenue(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+    @Query("SELECT l.number, SUM(r.bookingCount) FROM BookingDailyRollup r, Lane l WHERE l.id = r.laneId " +
+           "AND r.day BETWEEN :fromDay AND :toDay GROUP BY l.number ORDER BY SUM(r.bookingCount) DESC")
+    List<Object[]> sumBookingCountByLane(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+}
@@ -2,26 +2,81 @@ package com.example.ibowl.repository;
 
 import com.example.ibowl.entity.Booking;
 import com.example.ibowl.entity.BookingStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    // Listings read the user and lane of every booking, load them with the bookings instead of one select each
+    @Override
+    @EntityGraph(attributePaths = {"user", "lane"})
+    List<Booking> findAll();
+
     // Admin methods
     long countByStatus(BookingStatus status);
     
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.startTime BETWEEN :startDate AND :endDate")
-    long countByStartTimeBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-    
     @Query("SELECT COALESCE(SUM(b.totalPrice), 0) FROM Booking b")
     BigDecimal getTotalRevenue();
-    
-    @Query("SELECT COALESCE(SUM(b.totalPrice), 0) FROM Booking b WHERE b.startTime BETWEEN :startDate AND :endDate")
-    BigDecimal getRevenueInPeriod(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-    
-    @Query("SELECT b.lane.number, COUNT(b) FROM Booking b WHERE b.startTime BETWEEN :startDate AND :endDate GROUP BY b.lane.number ORDER BY COUNT(b) DESC")
-    Object[] getTopPerformingLane(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-} 
\ No newline at end of file
+
+    // Dashboard: user count, booking count, revenue and confirmed bookings in one round trip
+    @Query(nativeQuery = true, value =
+        "SELECT (SELECT COUNT(*) FROM users) AS \"totalUsers\", COUNT(*) AS \"totalBookings\", " +
+        "COALESCE(SUM(total_price), 0) AS \"totalRevenue\", " +
+        "COUNT(*) FILTER (WHERE status = 'CONFIRMED') AS \"activeBookings\" FROM bookings")
+    DashboardStatsView getDashboardStats();
+
+    // Keyset pagination on (start_time, id); pass a PageRequest of (0, size) to bound the page.
+    // User and lane are fetched in the same statement since every listing shows them.
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.user LEFT JOIN FETCH b.lane " +
+           "WHERE (b.startTime, b.id) > (:afterStart, :afterId) " +
+           "AND b.startTime >= :from AND b.startTime < :to " +
+           "AND (:status IS NULL OR b.status = :status) AND (:laneId IS NULL OR b.lane.id = :laneId) " +
+           "ORDER BY b.startTime, b.id")
+    List<Booking> findPageAfter(@Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId,
+                                @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                @Param("status") BookingStatus status, @Param("laneId") Long laneId,
+                                Pageable page);
+
+    // Export: whole history in id order, read through a server-side cursor; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.user LEFT JOIN FETCH b.lane ORDER BY b.id")
+    Stream<Booking> streamAllForExport();
+
+    // Utilization: lane id, start and end of active lane bookings overlapping [from, to), sorted by lane then start.
+    // Written as a range overlap so it is answered from idx_bookings_active_range.
+    @Query(nativeQuery = true, value =
+        "SELECT b.lane_id, b.start_time, b.end_time FROM bookings b WHERE b.status <> 'CANCELLED' AND b.lane_id IS NOT NULL " +
+        "AND tsrange(b.start_time, b.end_time) && tsrange(:from, :to) ORDER BY b.lane_id, b.start_time")
+    List<Object[]> findActiveIntervalsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Lane interval index: id, lane id, start and end of every booking still holding its lane
+    @Query("SELECT b.id, b.lane.id, b.startTime, b.endTime FROM Booking b WHERE b.status <> com.example.ibowl.entity.BookingStatus.CANCELLED AND b.startTime IS NOT NULL AND b.endTime IS NOT NULL")
+    List<Object[]> findActiveIntervals();
+
+    @Query("SELECT b.id, b.holdExpiresAt FROM Booking b WHERE b.status = com.example.ibowl.entity.BookingStatus.PENDING AND b.holdExpiresAt IS NOT NULL")
+    List<Object[]> findPendingHolds();
+
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.lane WHERE b.id IN :ids " +
+           "AND b.status = com.example.ibowl.entity.BookingStatus.PENDING AND b.holdExpiresAt <= :now")
+    List<Booking> findExpiredHolds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = com.example.ibowl.entity.BookingStatus.CANCELLED, b.holdExpiresAt = NULL " +
+           "WHERE b.id IN :ids AND b.status = com.example.ibowl.entity.BookingStatus.PENDING")
+    int cancelHolds(@Param("ids") Collection<Long> ids);
+}
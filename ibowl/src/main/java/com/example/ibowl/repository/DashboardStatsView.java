@@ -0,0 +1,16 @@
+package com.example.ibowl.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Row returned by {@link BookingRepository#getDashboardStats()}.
+ */
+public interface DashboardStatsView {
+    Long getTotalUsers();
+
+    Long getTotalBookings();
+
+    BigDecimal getTotalRevenue();
+
+    Long getActiveBookings();
+}
@@ -2,6 +2,20 @@ package com.example.ibowl.repository;
 
 import com.example.ibowl.entity.Game;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface GameRepository extends JpaRepository<Game, Long> {
-} 
\ No newline at end of file
+    long countByBookingId(Long bookingId);
+
+    // One statement per roll, without loading the game
+    @Modifying
+    @Transactional
+    @Query("UPDATE Game g SET g.rolls = :rolls, g.player1Score = :p1, g.player2Score = :p2, g.player3Score = :p3, " +
+           "g.player4Score = :p4, g.player5Score = :p5, g.player6Score = :p6 WHERE g.id = :id")
+    int updateRolls(@Param("id") Long id, @Param("rolls") byte[] rolls,
+                    @Param("p1") Integer p1, @Param("p2") Integer p2, @Param("p3") Integer p3,
+                    @Param("p4") Integer p4, @Param("p5") Integer p5, @Param("p6") Integer p6);
+}
@@ -2,10 +2,18 @@ package com.example.ibowl.repository;
 
 import com.example.ibowl.entity.Lane;
 import com.example.ibowl.entity.LaneStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 
 public interface LaneRepository extends JpaRepository<Lane, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Lane> findAll();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Lane> findByStatus(LaneStatus status);
 } 
\ No newline at end of file
@@ -1,7 +1,15 @@
 package com.example.ibowl.repository;
 
 import com.example.ibowl.entity.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
-} 
\ No newline at end of file
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Room> findAll();
+}
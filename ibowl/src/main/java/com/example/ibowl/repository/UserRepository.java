@@ -2,6 +2,7 @@ package com.example.ibowl.repository;
 
 import com.example.ibowl.entity.User;
 import com.example.ibowl.entity.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,7 +13,17 @@ import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-    Optional<User> findByEmailIgnoreCase(String email);
+
+    @Query("SELECT u.role, u.password FROM User u WHERE u.id = :id")
+    List<Object[]> findRoleAndPassword(@Param("id") Long id);
+
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findTokenVersions();
+
+    // lower() on both sides so the lookup can use idx_users_lower_email
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
+
     boolean existsByEmail(String email);
     
     // Admin methods
@@ -22,4 +33,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     long countByRoleAndCreatedAtAfter(@Param("role") Role role, @Param("since") LocalDateTime since);
     
     List<User> findByRoleOrderByLoyaltyPointsDesc(Role role);
+
+    // Keyset pagination on (created_at, id); pass a PageRequest of (0, size) to bound the page.
+    // The row comparison lets the index on (created_at, id) start at the cursor.
+    @Query("SELECT u FROM User u WHERE (u.createdAt, u.id) > (:afterCreated, :afterId) " +
+           "AND (:role IS NULL OR u.role = :role) ORDER BY u.createdAt, u.id")
+    List<User> findPageAfter(@Param("afterCreated") LocalDateTime afterCreated, @Param("afterId") Long afterId,
+                             @Param("role") Role role, Pageable page);
 } 
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.example.ibowl.repository;
+
+import com.example.ibowl.entity.WaitlistEntry;
+import com.example.ibowl.entity.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.user WHERE w.status IN :statuses")
+    List<WaitlistEntry> findWithUserByStatusIn(@Param("statuses") Collection<WaitlistStatus> statuses);
+
+    List<WaitlistEntry> findByUserIdOrderByRequestedAtDesc(Long userId);
+
+    // Status changes only apply from the status the caller expects and return 0 once it has moved on
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = :status WHERE w.id = :id AND w.status = :expected")
+    int updateStatus(@Param("id") Long id, @Param("expected") WaitlistStatus expected, @Param("status") WaitlistStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = com.example.ibowl.entity.WaitlistStatus.OFFERED, " +
+           "w.offeredBookingId = :bookingId, w.totalPrice = :totalPrice, w.offeredAt = :offeredAt " +
+           "WHERE w.id = :id AND w.status = com.example.ibowl.entity.WaitlistStatus.WAITING")
+    int markOffered(@Param("id") Long id, @Param("bookingId") Long bookingId, @Param("totalPrice") BigDecimal totalPrice,
+                    @Param("offeredAt") LocalDateTime offeredAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WaitlistEntry w SET w.status = com.example.ibowl.entity.WaitlistStatus.EXPIRED " +
+           "WHERE w.status = com.example.ibowl.entity.WaitlistStatus.WAITING AND w.startTime < :now")
+    int expireWaitingBefore(@Param("now") LocalDateTime now);
+}
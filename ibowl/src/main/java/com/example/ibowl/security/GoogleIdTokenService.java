@@ -0,0 +1,82 @@
+package com.example.ibowl.security;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Verifies Google ID tokens with one shared verifier whose signing keys come from
+ * a {@link GooglePublicKeyCache}, so an OAuth login costs a signature check and
+ * no connection setup or key download.
+ */
+@Component
+public class GoogleIdTokenService {
+
+    @Value("${google.oauth.client-id:114463283400-ab1ldu42nao93fauu9po8rcg9on8cln7.apps.googleusercontent.com}")
+    private String clientId;
+
+    @Value("${google.oauth.jwks-url:https://www.googleapis.com/oauth2/v3/certs}")
+    private String jwksUrl;
+
+    @Value("${google.oauth.refresh-ahead-ms:300000}")
+    private long refreshAheadMillis;
+
+    private GooglePublicKeyCache keyCache;
+    private GoogleIdTokenVerifier verifier;
+
+    @PostConstruct
+    public void init() {
+        keyCache = new GooglePublicKeyCache(jwksUrl, refreshAheadMillis);
+        verifier = new CachedKeyVerifier(new GoogleIdTokenVerifier.Builder(
+                new NetHttpTransport(), JacksonFactory.getDefaultInstance())
+                .setAudience(List.of(clientId)), keyCache);
+    }
+
+    /**
+     * @return the verified token, or null if its signature, issuer, audience or expiry is wrong
+     */
+    public GoogleIdToken verify(String idToken) throws GeneralSecurityException, IOException {
+        return verifier.verify(idToken);
+    }
+
+    @Scheduled(fixedDelayString = "${google.oauth.refresh-check-ms:60000}")
+    public void refreshKeys() {
+        keyCache.refreshIfDue();
+    }
+
+    /**
+     * Checks signatures against the cached keys instead of the verifier's own key
+     * manager, which blocks every caller while it downloads.
+     */
+    private static final class CachedKeyVerifier extends GoogleIdTokenVerifier {
+        private final GooglePublicKeyCache keyCache;
+
+        CachedKeyVerifier(GoogleIdTokenVerifier.Builder builder, GooglePublicKeyCache keyCache) {
+            super(builder);
+            this.keyCache = keyCache;
+        }
+
+        @Override
+        public boolean verify(GoogleIdToken idToken) throws GeneralSecurityException {
+            if (!verifyPayload(idToken)) {
+                return false;
+            }
+            for (PublicKey key : keyCache.getKeys()) {
+                if (idToken.verifySignature(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.ibowl.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * RSA signing keys from a JWKS endpoint, kept for the max-age the endpoint sends.
+ * Keys are refreshed ahead of expiry while the current set keeps being served,
+ * and concurrent refreshes share one fetch over one reused HTTP client.
+ */
+public class GooglePublicKeyCache {
+    private static final Logger logger = LoggerFactory.getLogger(GooglePublicKeyCache.class);
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final long DEFAULT_MAX_AGE_SECONDS = 3600;
+
+    private final URI jwksUri;
+    private final long refreshAheadMillis;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record KeySet(List<PublicKey> keys, long expiresAt) {
+    }
+
+    private volatile KeySet current;
+    private final AtomicReference<CompletableFuture<KeySet>> inFlight = new AtomicReference<>();
+
+    public GooglePublicKeyCache(String jwksUrl, long refreshAheadMillis) {
+        this.jwksUri = URI.create(jwksUrl);
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    /**
+     * Returns the signing keys. Only a cold or fully expired cache waits for the
+     * endpoint; keys close to expiry are returned while a refresh runs.
+     */
+    public List<PublicKey> getKeys() {
+        KeySet keySet = current;
+        long now = System.currentTimeMillis();
+        if (keySet == null || now >= keySet.expiresAt()) {
+            try {
+                return refresh().join().keys();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Could not load signing keys from " + jwksUri, e.getCause());
+            }
+        }
+        if (now >= keySet.expiresAt() - refreshAheadMillis) {
+            refresh();
+        }
+        return keySet.keys();
+    }
+
+    /**
+     * Refreshes in the background when the keys are missing or due to expire soon.
+     */
+    public void refreshIfDue() {
+        KeySet keySet = current;
+        if (keySet == null || System.currentTimeMillis() >= keySet.expiresAt() - refreshAheadMillis) {
+            refresh().exceptionally(e -> {
+                logger.warn("Background refresh of signing keys failed: {}", e.getMessage());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Starts a fetch unless one is already running, in which case its result is shared.
+     */
+    private CompletableFuture<KeySet> refresh() {
+        CompletableFuture<KeySet> next = new CompletableFuture<>();
+        while (!inFlight.compareAndSet(null, next)) {
+            // read once: the running one may complete and clear itself at any moment
+            CompletableFuture<KeySet> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+        }
+        HttpRequest request = HttpRequest.newBuilder(jwksUri).timeout(Duration.ofSeconds(10)).GET().build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    throw error;
+                }
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("JWKS endpoint returned " + response.statusCode());
+                }
+                KeySet loaded = new KeySet(parseKeys(response.body()),
+                    System.currentTimeMillis() + maxAgeSeconds(response) * 1000);
+                current = loaded;
+                inFlight.compareAndSet(next, null);
+                next.complete(loaded);
+            } catch (Throwable e) {
+                inFlight.compareAndSet(next, null);
+                next.completeExceptionally(e);
+            }
+        });
+        return next;
+    }
+
+    private List<PublicKey> parseKeys(String body) throws Exception {
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        List<PublicKey> keys = new ArrayList<>();
+        for (JsonNode key : objectMapper.readTree(body).path("keys")) {
+            if (!"RSA".equals(key.path("kty").asText())) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(key.path("e").asText()));
+            keys.add(keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        if (keys.isEmpty()) {
+            throw new GeneralSecurityException("No RSA keys in JWKS response");
+        }
+        return List.copyOf(keys);
+    }
+
+    private static long maxAgeSeconds(HttpResponse<?> response) {
+        long age = response.headers().firstValueAsLong("Age").orElse(0);
+        return response.headers().firstValue("Cache-Control")
+            .map(MAX_AGE::matcher)
+            .filter(Matcher::find)
+            .map(matcher -> Math.max(0, Long.parseLong(matcher.group(1)) - age))
+            .orElse(DEFAULT_MAX_AGE_SECONDS);
+    }
+}
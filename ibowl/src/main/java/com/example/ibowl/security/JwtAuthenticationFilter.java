@@ -1,5 +1,6 @@
 package com.example.ibowl.security;
 
+import com.example.ibowl.entity.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +8,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,6 +17,8 @@ import java.io.IOException;
 /**
  * Servlet filter that processes incoming HTTP requests to extract and validate JWT tokens.
  * If a valid token is found, sets the authentication in the Spring Security context.
+ * The token is parsed once and the authorities come from its claims, so an
+ * authenticated request does not touch the database.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -26,7 +27,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider jwtTokenProvider;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     /**
      * Filters each HTTP request to check for a JWT token in the Authorization header.
@@ -45,7 +54,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String header = request.getHeader("Authorization");
-        System.out.println("Authorization header: " + header);
 
         if (header == null || !header.startsWith("Bearer ")) {
             // No token found, continue the filter chain without authentication
@@ -53,20 +61,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = header.substring(7);
-        String username = jwtTokenProvider.getUsernameFromToken(token);
-        System.out.println("Extracted username from token: " + username);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtTokenProvider.TokenClaims claims = jwtTokenProvider.parseToken(header.substring(7));
+            UserPrincipal principal = claims != null ? toPrincipal(claims) : null;
 
-            if (jwtTokenProvider.validateToken(token)) {
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                                principal, null, principal.getAuthorities());
 
-                authentication.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request));
+                authentication.setDetails(detailsSource.buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
@@ -74,4 +78,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserPrincipal toPrincipal(JwtTokenProvider.TokenClaims claims) {
+        if (tokenRevocationStore.isRevoked(claims.jti())) {
+            return null;
+        }
+        if (claims.userId() != null && claims.role() != null) {
+            if (!tokenVersionRegistry.isCurrent(claims.userId(), claims.version())) {
+                return null;
+            }
+            return new UserPrincipal(claims.userId(), claims.subject(), claims.role(), userPrincipalCache::get);
+        }
+        // Token issued before role and user id were in the claims
+        User user = userPrincipalCache.get(claims.subject());
+        return user != null ? new UserPrincipal(user) : null;
+    }
 }
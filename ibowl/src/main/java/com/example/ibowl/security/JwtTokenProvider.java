@@ -1,59 +1,102 @@
 package com.example.ibowl.security;
 
+import com.example.ibowl.entity.Role;
+import com.example.ibowl.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * Utility class for generating, parsing, and validating JWT tokens.
  * Handles signing and expiration logic for authentication tokens.
+ * The signing key and parser are built once and shared, both are thread-safe.
  */
 @Component
 public class JwtTokenProvider {
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLE_CLAIM = "role";
+    static final String VERSION_CLAIM = "ver";
+
     @Value("${security.jwt.secret:SecretKeyForJWTTokenGeneration12345678901234567890}")
     private String jwtSecret;
 
-    @Value("${security.jwt.expiration:86400000}")
+    @Value("${security.jwt.expiration:900000}")
     private long jwtExpirationMs;
 
+    private SecretKey signingKey;
+    private JwtParser parser;
+
     /**
-     * Returns the signing key used for JWT token generation and validation.
-     * @return SecretKey for HMAC signing
+     * Claims of a verified token. {@code userId}, {@code role} and {@code jti} are null
+     * for tokens issued before they were added to the claims.
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public record TokenClaims(String subject, Long userId, Role role, int version, String jti, Instant expiresAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     /**
-     * Generates a JWT token for the given username.
-     * @param username the username to include in the token subject
+     * Generates a JWT token for the given user, carrying a unique id for revocation and
+     * the user id, role and token version so requests can be authenticated without loading the user.
+     * @param user the authenticated user
      * @return a signed JWT token as a String
      */
-    public String generateToken(String username) {
+    public String generateToken(User user) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .subject(username)
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(VERSION_CLAIM, user.getTokenVersion() != null ? user.getTokenVersion() : 0)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpirationMs))
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiration of a token and reads its claims in one pass.
+     * @param token the JWT token
+     * @return the claims, or null if the token is invalid or expired
+     */
+    public TokenClaims parseToken(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Number userId = claims.get(USER_ID_CLAIM, Number.class);
+            String role = claims.get(ROLE_CLAIM, String.class);
+            Number version = claims.get(VERSION_CLAIM, Number.class);
+            return new TokenClaims(
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                role != null ? Role.valueOf(role) : null,
+                version != null ? version.intValue() : 0,
+                claims.getId(),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Extracts the username (subject) from a JWT token.
      * @param token the JWT token
-     * @return the username (subject) if present, null otherwise
+     * @return the username (subject) if the token is valid, null otherwise
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        TokenClaims claims = parseToken(token);
+        return claims != null ? claims.subject() : null;
     }
 
     /**
@@ -62,14 +105,6 @@ public class JwtTokenProvider {
      * @return true if the token is valid, false otherwise
      */
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseToken(authToken) != null;
     }
-}
\ No newline at end of file
+}
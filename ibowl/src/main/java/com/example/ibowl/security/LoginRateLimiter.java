@@ -0,0 +1,114 @@
+package com.example.ibowl.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Token buckets per email and per client address for the credential endpoints,
+ * checked before any password is hashed. Buckets live in lock-striped LRU maps so
+ * a flood of distinct keys stays bounded in memory and threads rarely contend.
+ */
+@Component
+public class LoginRateLimiter {
+    private static final int STRIPES = 64;
+
+    private final Stripe[] emailBuckets;
+    private final Stripe[] addressBuckets;
+    private final double emailCapacity;
+    private final double emailRefillPerNano;
+    private final double addressCapacity;
+    private final double addressRefillPerNano;
+    private final long retryAfterSeconds;
+
+    public LoginRateLimiter(
+            @Value("${security.rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${security.rate-limit.email.per-minute:5}") int emailPerMinute,
+            @Value("${security.rate-limit.address.capacity:20}") int addressCapacity,
+            @Value("${security.rate-limit.address.per-minute:20}") int addressPerMinute,
+            @Value("${security.rate-limit.max-keys:100000}") int maxKeys) {
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerNano = emailPerMinute / 60e9;
+        this.addressCapacity = addressCapacity;
+        this.addressRefillPerNano = addressPerMinute / 60e9;
+        // time for the slower bucket to earn back one token
+        this.retryAfterSeconds = (long) Math.ceil(60.0 / Math.max(1, Math.min(emailPerMinute, addressPerMinute)));
+        this.emailBuckets = stripes(maxKeys);
+        this.addressBuckets = stripes(maxKeys);
+    }
+
+    /**
+     * Takes a token from the bucket of the email (when given) and of the address.
+     * @return false if either bucket is empty
+     */
+    public boolean tryAcquire(String email, String address) {
+        long now = System.nanoTime();
+        if (address != null && !take(addressBuckets, address, addressCapacity, addressRefillPerNano, now)) {
+            return false;
+        }
+        return email == null
+            || take(emailBuckets, email.trim().toLowerCase(Locale.ROOT), emailCapacity, emailRefillPerNano, now);
+    }
+
+    /**
+     * Seconds until a throttled caller has a token again, for the {@code Retry-After} header.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private static boolean take(Stripe[] stripes, String key, double capacity, double refillPerNano, long now) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.put(key, bucket);
+            }
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * refillPerNano);
+            bucket.refilledAt = now;
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens -= 1;
+            return true;
+        }
+    }
+
+    private static Stripe[] stripes(int maxKeys) {
+        Stripe[] stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(Math.max(16, maxKeys / STRIPES));
+        }
+        return stripes;
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    // Evicting the least recently used key forgets a throttled client, which only
+    // ever gives it a fresh bucket
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maxSize;
+
+        Stripe(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.ibowl.security;
+
+import com.example.ibowl.entity.RefreshToken;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.event.UserChangedEvent;
+import com.example.ibowl.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Issues opaque refresh tokens and exchanges them for a new access token. Each use
+ * rotates the token; presenting a token that was already rotated is treated as
+ * theft and revokes every token descended from the same login. Recently issued
+ * tokens are kept in an LRU front so most renewals skip the lookup query.
+ */
+@Component
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Value("${security.refresh.expiration-days:30}")
+    private long expirationDays;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Entry> front;
+
+    private record Entry(Long id, String familyId, int tokenVersion, LocalDateTime expiresAt, User user) {
+    }
+
+    /**
+     * The user a refresh token belonged to and the token that replaces it.
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    public RefreshTokenService(@Value("${security.refresh.cache-size:10000}") int cacheSize) {
+        this.front = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Starts a new token family for a fresh login.
+     */
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for its replacement.
+     * @return null if the token is unknown, expired, revoked, already used, or was
+     * issued before the user's last role or password change
+     */
+    public Rotation rotate(String rawToken) {
+        String hash = hash(rawToken);
+        Entry entry;
+        // a token leaves the front when used, so a second use always reaches the table
+        synchronized (front) {
+            entry = front.remove(hash);
+        }
+        if (entry == null) {
+            RefreshToken stored = refreshTokenRepository.findWithUserByTokenHash(hash).orElse(null);
+            if (stored == null || Boolean.TRUE.equals(stored.getRevoked())) {
+                return null;
+            }
+            if (stored.getRotatedAt() != null) {
+                logger.warn("Reuse of rotated refresh token for user {}, revoking its family", stored.getUser().getId());
+                revokeFamily(stored.getFamilyId());
+                return null;
+            }
+            entry = toEntry(stored);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!entry.expiresAt().isAfter(now)
+                || !tokenVersionRegistry.isCurrent(entry.user().getId(), entry.tokenVersion())) {
+            return null;
+        }
+        if (refreshTokenRepository.markRotated(entry.id(), now) == 0) {
+            // another request used the same token first
+            logger.warn("Concurrent reuse of refresh token for user {}, revoking its family", entry.user().getId());
+            revokeFamily(entry.familyId());
+            return null;
+        }
+        return new Rotation(entry.user(), issue(entry.user(), entry.familyId()));
+    }
+
+    /**
+     * Revokes the family of the given token, used on logout.
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findWithUserByTokenHash(hash(rawToken))
+            .ifPresent(stored -> revokeFamily(stored.getFamilyId()));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        synchronized (front) {
+            front.values().removeIf(entry -> entry.user().getId().equals(event.userId()));
+        }
+    }
+
+    @Scheduled(cron = "${security.refresh.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUser(user);
+        token.setFamilyId(familyId);
+        token.setTokenVersion(user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+        token.setExpiresAt(LocalDateTime.now().plusDays(expirationDays));
+        RefreshToken saved = refreshTokenRepository.save(token);
+        synchronized (front) {
+            front.put(saved.getTokenHash(), toEntry(saved));
+        }
+        return rawToken;
+    }
+
+    private void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+        synchronized (front) {
+            front.values().removeIf(entry -> entry.familyId().equals(familyId));
+        }
+    }
+
+    private static Entry toEntry(RefreshToken token) {
+        return new Entry(token.getId(), token.getFamilyId(), token.getTokenVersion(), token.getExpiresAt(), token.getUser());
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
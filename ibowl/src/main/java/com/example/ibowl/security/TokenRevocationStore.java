@@ -0,0 +1,115 @@
+package com.example.ibowl.security;
+
+import com.example.ibowl.entity.RevokedToken;
+import com.example.ibowl.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token ids revoked by logout, kept until the token would have expired anyway.
+ * A Bloom filter answers "not revoked" for almost every request with a few hash
+ * probes; only its rare positives go to the exact set. The revoked_tokens table
+ * survives restarts and is read once at startup.
+ */
+@Component
+public class TokenRevocationStore {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${security.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    // jti -> expiry in epoch millis
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(1, FALSE_POSITIVE_RATE);
+    // keys the current filter was sized for; guarded by this
+    private int filterCapacity = 1;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<RevokedToken> rows = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        for (RevokedToken row : rows) {
+            revoked.put(row.getJti(), toMillis(row.getExpiresAt()));
+        }
+        rebuildFilter();
+        logger.info("Loaded {} revoked tokens", rows.size());
+    }
+
+    /**
+     * Revokes a token id until {@code expiresAt}. The filter is updated before the
+     * call returns, so the next request with the token is already rejected. The set
+     * and the filter change under the same lock as a rebuild, so a rebuild never
+     * swaps in a filter without the new key.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        RevokedToken row = new RevokedToken();
+        row.setJti(jti);
+        row.setExpiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        revokedTokenRepository.save(row);
+        synchronized (this) {
+            revoked.put(jti, expiresAt.toEpochMilli());
+            filter.add(jti);
+            if (revoked.size() > filterCapacity) {
+                rebuildFilter();
+            }
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Drops entries whose token has expired from memory and from the table. A Bloom
+     * filter cannot forget keys, so it is rebuilt from the remaining set.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sweep-ms:600000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        boolean removed = revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (removed) {
+            rebuildFilter();
+        }
+        if (deleted > 0) {
+            logger.debug("Purged {} expired revoked tokens", deleted);
+        }
+    }
+
+    // Sized with headroom, so a growing set only pays for a rebuild each time it doubles
+    private synchronized void rebuildFilter() {
+        int capacity = Math.max(expectedTokens, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        for (String jti : revoked.keySet()) {
+            rebuilt.add(jti);
+        }
+        filter = rebuilt;
+        filterCapacity = capacity;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ibowl.security;
+
+import com.example.ibowl.event.UserChangedEvent;
+import com.example.ibowl.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version of every user whose version is not 0, so the JWT filter
+ * can reject tokens issued before a role or password change without a query.
+ */
+@Component
+public class TokenVersionRegistry {
+    private static final int DELETED = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentHashMap<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = userRepository.findTokenVersions();
+        for (Object[] row : rows) {
+            versions.put((Long) row[0], (Integer) row[1]);
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        versions.put(event.userId(), event.tokenVersion() != null ? event.tokenVersion() : DELETED);
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        return current != null ? current == tokenVersion : tokenVersion == 0;
+    }
+}
@@ -1,32 +1,64 @@
 package com.example.ibowl.security;
 
+import com.example.ibowl.entity.Role;
 import com.example.ibowl.entity.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class UserPrincipal implements UserDetails {
-    private final User user;
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
+
+    private final Long userId;
+    private final String email;
+    private final Role role;
+    private final Function<String, User> loader;
+    private volatile User user;
 
     public UserPrincipal(User user) {
+        this.userId = user.getId();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.loader = null;
         this.user = user;
     }
 
+    /**
+     * Principal built from token claims; the full user is only loaded if asked for.
+     */
+    public UserPrincipal(Long userId, String email, Role role, Function<String, User> loader) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.loader = loader;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+        return AUTHORITIES.get(role);
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        User loaded = getUser();
+        return loaded != null ? loaded.getPassword() : null;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -49,7 +81,20 @@ public class UserPrincipal implements UserDetails {
         return true;
     }
 
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
     public User getUser() {
-        return user;
+        User loaded = user;
+        if (loaded == null && loader != null) {
+            loaded = loader.apply(email);
+            user = loaded;
+        }
+        return loaded;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.example.ibowl.security;
+
+import com.example.ibowl.entity.User;
+import com.example.ibowl.event.UserChangedEvent;
+import com.example.ibowl.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded least-recently-used cache of users by normalized email, shared by login
+ * and token authentication. Entries expire after a TTL and are dropped as soon as
+ * the user changes; a load that raced with a change is not cached, so a stale
+ * role is never served from here.
+ */
+@Component
+public class UserPrincipalCache {
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, Entry> users;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private long generation;
+
+    private record Entry(User user, long loadedAt) {
+    }
+
+    public UserPrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                              @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the user with the given email, loading it on a miss; null if there is none.
+     */
+    public User get(String email) {
+        if (email == null) {
+            return null;
+        }
+        String key = normalize(email);
+        long loadGeneration;
+        synchronized (users) {
+            Entry cached = users.get(key);
+            if (cached != null) {
+                if (System.nanoTime() - cached.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return cached.user();
+                }
+                users.remove(key);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        User loaded = userRepository.findByEmailIgnoreCase(key).orElse(null);
+        if (loaded != null) {
+            synchronized (users) {
+                if (generation == loadGeneration) {
+                    users.put(key, new Entry(loaded, System.nanoTime()));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops a user, by email and by id so a changed email leaves nothing behind.
+     */
+    public void invalidate(Long userId, String email) {
+        synchronized (users) {
+            generation++;
+            if (email != null) {
+                users.remove(normalize(email));
+            }
+            if (userId != null) {
+                users.values().removeIf(entry -> userId.equals(entry.user().getId()));
+            }
+        }
+        invalidations.increment();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.userId(), event.email());
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (users) {
+            stats.put("size", users.size());
+        }
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0
+            : Math.round(hitCount * 1000.0 / (hitCount + missCount)) / 10.0);
+        return stats;
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.repository.BookingRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full booking history to an output stream one row at a time.
+ * Rows are read through a database cursor and detached once written, so
+ * memory use does not depend on how many bookings there are.
+ */
+@Service
+public class BookingExportService {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int CLEAR_EVERY = 500;
+    private static final String[] CSV_HEADER = {
+        "id", "userId", "userEmail", "userName", "laneId", "laneNumber",
+        "startTime", "endTime", "players", "totalPrice", "status"
+    };
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public void export(String format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Booking> bookings = bookingRepository.streamAllForExport()) {
+            if (FORMAT_CSV.equals(format)) {
+                writeCsv(bookings, writer);
+            } else {
+                writeNdjson(bookings, writer);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Booking export failed", e);
+        }
+    }
+
+    private void writeNdjson(Stream<Booking> bookings, Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.setRootValueSeparator(null);
+        Iterator<Booking> rows = bookings.iterator();
+        int count = 0;
+        while (rows.hasNext()) {
+            Booking booking = rows.next();
+            User user = booking.getUser();
+            Lane lane = booking.getLane();
+            json.writeStartObject();
+            json.writeObjectField("id", booking.getId());
+            json.writeObjectField("userId", user != null ? user.getId() : null);
+            json.writeStringField("userEmail", user != null ? user.getEmail() : null);
+            json.writeStringField("userName", user != null ? user.getFirstName() + " " + user.getLastName() : null);
+            json.writeObjectField("laneId", lane != null ? lane.getId() : null);
+            json.writeObjectField("laneNumber", lane != null ? lane.getNumber() : null);
+            json.writeStringField("startTime", booking.getStartTime() != null ? booking.getStartTime().toString() : null);
+            json.writeStringField("endTime", booking.getEndTime() != null ? booking.getEndTime().toString() : null);
+            json.writeObjectField("players", booking.getPlayers());
+            json.writeObjectField("totalPrice", booking.getTotalPrice());
+            json.writeStringField("status", booking.getStatus() != null ? booking.getStatus().name() : null);
+            json.writeEndObject();
+            json.writeRaw('\n');
+            release(booking, ++count);
+        }
+        json.flush();
+    }
+
+    private void writeCsv(Stream<Booking> bookings, Writer writer) throws IOException {
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write('\n');
+        Iterator<Booking> rows = bookings.iterator();
+        int count = 0;
+        while (rows.hasNext()) {
+            Booking booking = rows.next();
+            User user = booking.getUser();
+            Lane lane = booking.getLane();
+            writeCsvRow(writer,
+                booking.getId(),
+                user != null ? user.getId() : null,
+                user != null ? user.getEmail() : null,
+                user != null ? user.getFirstName() + " " + user.getLastName() : null,
+                lane != null ? lane.getId() : null,
+                lane != null ? lane.getNumber() : null,
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getPlayers(),
+                booking.getTotalPrice() != null ? booking.getTotalPrice().toPlainString() : null,
+                booking.getStatus());
+            release(booking, ++count);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Detaches the booking just written and periodically clears the users and
+     * lanes that were fetched along with it, keeping the persistence context small.
+     */
+    private void release(Booking booking, int count) {
+        entityManager.detach(booking);
+        if (count % CLEAR_EVERY == 0) {
+            entityManager.clear();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Expires PENDING bookings whose hold has run out. Each hold is a timer on a
+ * {@link HoldTimingWheel}; due holds are cancelled in batches with one UPDATE,
+ * under the locks of their lanes, and then announced like any other booking change
+ * so the lane index, availability and reports release the slot.
+ */
+@Service
+public class BookingHoldService {
+    private static final Logger logger = LoggerFactory.getLogger(BookingHoldService.class);
+    private static final long TICK_SECONDS = 1;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private LaneLocks laneLocks;
+
+    @Autowired
+    private LaneBookingIndex laneBookingIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @Value("${ibowl.booking.hold-ttl-minutes:15}")
+    private long holdTtlMinutes;
+
+    @Value("${ibowl.booking.hold-batch-size:500}")
+    private int batchSize;
+
+    private final HoldTimingWheel wheel = new HoldTimingWheel(tickOf(LocalDateTime.now()));
+
+    /**
+     * Expiry for a hold taken now.
+     */
+    public LocalDateTime newHoldExpiry() {
+        return LocalDateTime.now().plusMinutes(holdTtlMinutes);
+    }
+
+    /**
+     * Re-arms the timers of holds that were pending when the application stopped.
+     * Holds that ran out in the meantime fire on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void load() {
+        List<Object[]> rows = bookingRepository.findPendingHolds();
+        for (Object[] row : rows) {
+            wheel.schedule((Long) row[0], tickOf((LocalDateTime) row[1]));
+        }
+        logger.info("Rehydrated {} pending holds", rows.size());
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingSnapshot after = event.after();
+        if (after == null) {
+            wheel.cancel(event.before().id());
+        } else if (after.status() == BookingStatus.PENDING && after.holdExpiresAt() != null) {
+            wheel.schedule(after.id(), tickOf(after.holdExpiresAt()));
+        } else {
+            wheel.cancel(after.id());
+        }
+    }
+
+    public int pendingHolds() {
+        return wheel.size();
+    }
+
+    @Scheduled(fixedDelay = TICK_SECONDS * 1000)
+    public void expireDueHolds() {
+        List<Long> due = wheel.advance(tickOf(LocalDateTime.now()));
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<Long> batch = due.subList(i, Math.min(due.size(), i + batchSize));
+            try {
+                cancelBatch(batch);
+            } catch (RuntimeException e) {
+                logger.error("Failed to expire {} booking holds: {}", batch.size(), e.getMessage());
+                // try again on a later tick
+                LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+                batch.forEach(id -> wheel.schedule(id, tickOf(retryAt)));
+            }
+        }
+    }
+
+    /**
+     * Cancels the holds in the batch that are still pending and expired. A booking
+     * confirmed concurrently holds its lane lock, so it is either seen as confirmed
+     * here or confirmed after the hold was released.
+     */
+    private void cancelBatch(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> laneIds = new TreeSet<>();
+        for (Booking booking : bookingRepository.findExpiredHolds(ids, now)) {
+            if (booking.getLane() != null) {
+                laneIds.add(booking.getLane().getId());
+            }
+        }
+
+        List<BookingSnapshot> cancelled = new ArrayList<>();
+        List<Lock> locks = laneLocks.forLanes(laneIds);
+        locks.forEach(Lock::lock);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Booking> expired = bookingRepository.findExpiredHolds(ids, now);
+                if (expired.isEmpty()) {
+                    return;
+                }
+                List<Long> expiredIds = new ArrayList<>(expired.size());
+                for (Booking booking : expired) {
+                    expiredIds.add(booking.getId());
+                    cancelled.add(BookingSnapshot.of(booking));
+                }
+                bookingRepository.cancelHolds(expiredIds);
+                for (BookingSnapshot before : cancelled) {
+                    bookingRollupService.applyChange(before, before.withStatus(BookingStatus.CANCELLED));
+                }
+            });
+            cancelled.forEach(booking -> laneBookingIndex.remove(booking.id()));
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+
+        for (BookingSnapshot before : cancelled) {
+            eventPublisher.publishEvent(new BookingChangedEvent(before, before.withStatus(BookingStatus.CANCELLED)));
+        }
+        if (!cancelled.isEmpty()) {
+            logger.info("Expired {} booking holds", cancelled.size());
+        }
+    }
+
+    private static long tickOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / TICK_SECONDS;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.repository.BookingDailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the booking_daily_rollup table (day x lane x status -> count, revenue,
+ * player-minutes) and answers period reports from it instead of scanning bookings.
+ */
+@Service
+public class BookingRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(BookingRollupService.class);
+
+    @Autowired
+    private BookingDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile boolean stale;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rollupRepository.count() == 0) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Moves the old version of the booking out of its rollup row and the new one in.
+     * Must run in the transaction that writes the booking row, so the rollup commits
+     * together with it: a rebuild either sees neither or both, never the booking
+     * without its delta or the delta on top of a rebuild that already counted it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChange(BookingSnapshot before, BookingSnapshot after) {
+        // shared with other deltas, exclusive with a running reconcile
+        rollupRepository.lockForDelta();
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    /**
+     * Rebuilds the whole rollup from the bookings table. The rebuild holds the rollup's
+     * advisory lock exclusively, so it waits for booking writes already in flight to
+     * commit and writes arriving meanwhile wait for it, then apply on top of the rebuilt rows.
+     */
+    @Scheduled(cron = "${ibowl.rollup.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        stale = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupRepository.lockForRebuild();
+                rollupRepository.deleteAllRows();
+                rollupRepository.rebuildFromBookings();
+            });
+        } catch (RuntimeException e) {
+            stale = true;
+            throw e;
+        }
+        logger.info("Booking rollup reconciled in {} ms", System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Retries soon after a failed rebuild rather than waiting for the nightly run.
+     */
+    @Scheduled(fixedDelayString = "${ibowl.rollup.repair-ms:60000}")
+    public void repairIfStale() {
+        if (!stale) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Booking rollup repair failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * True while a failed rebuild has not been repaired yet, so reports may be off.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    public long countBookings(LocalDate fromDay, LocalDate toDay) {
+        return rollupRepository.sumBookingCount(fromDay, toDay);
+    }
+
+    public BigDecimal getRevenue(LocalDate fromDay, LocalDate toDay) {
+        return rollupRepository.sumRevenue(fromDay, toDay);
+    }
+
+    public Map<String, Object> getTopPerformingLane(LocalDate fromDay, LocalDate toDay) {
+        List<Object[]> rows = rollupRepository.sumBookingCountByLane(fromDay, toDay);
+        Map<String, Object> topLane = new HashMap<>();
+        topLane.put("laneNumber", rows.isEmpty() ? null : rows.get(0)[0]);
+        topLane.put("bookingCount", rows.isEmpty() ? 0L : rows.get(0)[1]);
+        return topLane;
+    }
+
+    private void apply(BookingSnapshot booking, int sign) {
+        if (booking == null || booking.startTime() == null || booking.endTime() == null || booking.status() == null) {
+            return;
+        }
+        long minutes = Duration.between(booking.startTime(), booking.endTime()).toMinutes();
+        long players = booking.players() != null ? booking.players() : 0;
+        BigDecimal revenue = booking.totalPrice() != null ? booking.totalPrice() : BigDecimal.ZERO;
+        rollupRepository.addDelta(
+            booking.startTime().toLocalDate(),
+            booking.laneId() != null ? booking.laneId() : 0L,
+            booking.status().name(),
+            sign,
+            sign < 0 ? revenue.negate() : revenue,
+            sign * players * minutes);
+    }
+}
@@ -1,24 +1,38 @@
 package com.example.ibowl.service;
 
+import com.example.ibowl.dto.request.KeysetCursor;
+import com.example.ibowl.dto.response.KeysetPage;
 import com.example.ibowl.entity.Booking;
 import com.example.ibowl.entity.BookingStatus;
 import com.example.ibowl.entity.User;
 import com.example.ibowl.entity.Lane;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.exception.BookingConflictException;
 import com.example.ibowl.repository.BookingRepository;
 import com.example.ibowl.repository.UserRepository;
 import com.example.ibowl.repository.LaneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.HashMap;
+import java.util.concurrent.locks.Lock;
 
 @Service
 public class BookingService {
+    static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -28,16 +42,84 @@ public class BookingService {
     @Autowired
     private LaneRepository laneRepository;
 
+    @Autowired
+    private LaneBookingIndex laneBookingIndex;
+
+    @Autowired
+    private LaneLocks laneLocks;
+
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public List<Booking> findAll() {
         return bookingRepository.findAll();
     }
 
+    /**
+     * Returns the bookings that come after {@code cursor} in (startTime, id) order.
+     * Each call reads at most {@code limit} + 1 rows whatever the size of the table.
+     * @param from first day to include (yyyy-MM-dd or an ISO date-time), may be null
+     * @param to last day to include (yyyy-MM-dd or an ISO date-time), may be null
+     * @throws IllegalArgumentException if the cursor, status or either bound cannot be parsed
+     */
+    public KeysetPage<Booking> findPage(String cursor, int limit, String status, Long laneId, String from, String to) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime fromTime = from != null ? parseBound(from, false) : KeysetCursor.MIN_TIME;
+        LocalDateTime toTime = to != null ? parseBound(to, true) : KeysetCursor.MAX_TIME;
+        BookingStatus bookingStatus = status != null ? parseStatus(status) : null;
+
+        List<Booking> rows = bookingRepository.findPageAfter(after.time(), after.id(), fromTime, toTime,
+            bookingStatus, laneId, PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<Booking> page = rows.subList(0, size);
+        Booking last = page.get(size - 1);
+        return new KeysetPage<>(page, new KeysetCursor(last.getStartTime(), last.getId()).encode());
+    }
+
+    private static LocalDateTime parseBound(String value, boolean endOfRange) {
+        try {
+            if (value.length() == 10) {
+                LocalDate day = LocalDate.parse(value);
+                return endOfRange ? day.plusDays(1).atStartOfDay() : day.atStartOfDay();
+            }
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    private static BookingStatus parseStatus(String value) {
+        try {
+            return BookingStatus.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown booking status: " + value);
+        }
+    }
+
     public Optional<Booking> findById(Long id) {
         return bookingRepository.findById(id);
     }
 
     public Booking save(Booking booking) {
-        return bookingRepository.save(booking);
+        BookingSnapshot before = booking.getId() != null
+            ? bookingRepository.findById(booking.getId()).map(BookingSnapshot::of).orElse(null)
+            : null;
+        return persist(booking, before, true);
     }
 
  
@@ -80,10 +162,10 @@ public class BookingService {
         booking.setStartTime(LocalDateTime.parse(bookingData.get("startTime").toString()));
         booking.setEndTime(LocalDateTime.parse(bookingData.get("endTime").toString()));
         booking.setPlayers(Integer.valueOf(bookingData.get("players").toString()));
-        booking.setTotalPrice(new BigDecimal(bookingData.get("totalPrice").toString()));
+        booking.setTotalPrice(pricingEngine.quote(lane.getLaneClass(), booking.getStartTime(), booking.getEndTime(), booking.getPlayers()));
         booking.setStatus(BookingStatus.valueOf(bookingData.get("status").toString()));
         
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking = persist(booking, null, true);
         System.out.println("BookingService: Saved booking with ID: " + savedBooking.getId() + " for user: " + savedBooking.getUser().getEmail());
         
         return savedBooking;
@@ -92,6 +174,7 @@ public class BookingService {
     public Booking updateBookingFromAdmin(Long bookingId, Map<String, Object> bookingData) {
         Booking booking = bookingRepository.findById(bookingId)
             .orElseThrow(() -> new RuntimeException("Booking not found"));
+        BookingSnapshot before = BookingSnapshot.of(booking);
         
         if (bookingData.containsKey("startTime")) {
             booking.setStartTime(LocalDateTime.parse(bookingData.get("startTime").toString()));
@@ -102,41 +185,133 @@ public class BookingService {
         if (bookingData.containsKey("players")) {
             booking.setPlayers(Integer.valueOf(bookingData.get("players").toString()));
         }
-        if (bookingData.containsKey("totalPrice")) {
+        if (bookingData.containsKey("startTime") || bookingData.containsKey("endTime") || bookingData.containsKey("players")) {
+            booking.setTotalPrice(pricingEngine.quote(booking.getLane() != null ? booking.getLane().getLaneClass() : null,
+                booking.getStartTime(), booking.getEndTime(), booking.getPlayers() != null ? booking.getPlayers() : 1));
+        } else if (bookingData.containsKey("totalPrice")) {
+            // manual price adjustment by an admin
             booking.setTotalPrice(new BigDecimal(bookingData.get("totalPrice").toString()));
         }
         if (bookingData.containsKey("status")) {
             booking.setStatus(BookingStatus.valueOf(bookingData.get("status").toString()));
         }
         
-        return bookingRepository.save(booking);
+        return persist(booking, before, true);
     }
 
     public void deleteBooking(Long bookingId) {
-        bookingRepository.deleteById(bookingId);
+        BookingSnapshot before = bookingRepository.findById(bookingId).map(BookingSnapshot::of).orElse(null);
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingRepository.deleteById(bookingId);
+            if (before != null) {
+                bookingRollupService.applyChange(before, null);
+            }
+        });
+        laneBookingIndex.remove(bookingId);
+        if (before != null) {
+            eventPublisher.publishEvent(new BookingChangedEvent(before, null));
+        }
     }
 
     public Booking updateBookingStatus(Long bookingId, String status) {
         Booking booking = bookingRepository.findById(bookingId)
             .orElseThrow(() -> new RuntimeException("Booking not found"));
         
+        BookingSnapshot before = BookingSnapshot.of(booking);
         booking.setStatus(BookingStatus.valueOf(status));
-        return bookingRepository.save(booking);
+        return persist(booking, before, !LaneBookingIndex.isActive(before.status()));
     }
 
+    // Period reports are answered from the daily rollup, whole days from startDate to endDate inclusive
     public long countBookingsInPeriod(LocalDateTime startDate, LocalDateTime endDate) {
-        return bookingRepository.countByStartTimeBetween(startDate, endDate);
+        return bookingRollupService.countBookings(startDate.toLocalDate(), endDate.toLocalDate());
     }
 
     public BigDecimal getRevenueInPeriod(LocalDateTime startDate, LocalDateTime endDate) {
-        return bookingRepository.getRevenueInPeriod(startDate, endDate);
+        return bookingRollupService.getRevenue(startDate.toLocalDate(), endDate.toLocalDate());
     }
 
     public Map<String, Object> getTopPerformingLane(LocalDateTime startDate, LocalDateTime endDate) {
-        Object[] result = bookingRepository.getTopPerformingLane(startDate, endDate);
-        Map<String, Object> topLane = new HashMap<>();
-        topLane.put("laneNumber", result[0]);
-        topLane.put("bookingCount", result[1]);
-        return topLane;
+        return bookingRollupService.getTopPerformingLane(startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    public boolean isReportDataStale() {
+        return bookingRollupService.isStale();
+    }
+
+    /**
+     * Saves the booking, updates the lane index and tells listeners what changed.
+     * The conflict check, insert and index update run under the lane's lock, so two
+     * requests for the same lane are serialized while other lanes proceed in parallel.
+     * The bookings_no_overlap exclusion constraint backs this up in the database. The
+     * row and its rollup delta commit in one transaction, before listeners are told.
+     */
+    private Booking persist(Booking booking, BookingSnapshot before, boolean checkConflict) {
+        validateTimes(booking);
+        if (booking.getStatus() != BookingStatus.PENDING) {
+            booking.setHoldExpiresAt(null);
+        } else if (booking.getHoldExpiresAt() == null) {
+            booking.setHoldExpiresAt(bookingHoldService.newHoldExpiry());
+        }
+        Booking saved;
+        if (booking.getLane() == null) {
+            saved = transactionTemplate.execute(status -> withRollup(bookingRepository.save(booking), before));
+        } else {
+            Lock lock = laneLocks.forLane(booking.getLane().getId());
+            lock.lock();
+            try {
+                if (checkConflict) {
+                    assertLaneAvailable(booking);
+                }
+                saved = transactionTemplate.execute(status -> withRollup(saveOrConflict(booking), before));
+                laneBookingIndex.index(saved);
+            } finally {
+                lock.unlock();
+            }
+        }
+        eventPublisher.publishEvent(new BookingChangedEvent(before, BookingSnapshot.of(saved)));
+        return saved;
+    }
+
+    private Booking withRollup(Booking saved, BookingSnapshot before) {
+        bookingRollupService.applyChange(before, BookingSnapshot.of(saved));
+        return saved;
+    }
+
+    // Flushed here: with sequence ids the insert would otherwise wait for the commit,
+    // which may be after the lane lock is released
+    private Booking saveOrConflict(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getMessage() != null && e.getMessage().contains(OVERLAP_CONSTRAINT)) {
+                throw new BookingConflictException("Lane " + booking.getLane().getId() + " is already booked between "
+                    + booking.getStartTime() + " and " + booking.getEndTime());
+            }
+            throw e;
+        }
+    }
+
+    private void validateTimes(Booking booking) {
+        if (booking.getStartTime() == null || booking.getEndTime() == null) {
+            throw new IllegalArgumentException("Start and end time are required");
+        }
+        if (!booking.getEndTime().isAfter(booking.getStartTime())) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+    }
+
+    /**
+     * Rejects a booking that would overlap another active booking on its lane.
+     * Checked against the in-memory lane index, so no query is issued.
+     */
+    private void assertLaneAvailable(Booking booking) {
+        if (!LaneBookingIndex.isActive(booking.getStatus())) {
+            return;
+        }
+        if (laneBookingIndex.hasConflict(booking.getLane().getId(), booking.getStartTime(), booking.getEndTime(), booking.getId())) {
+            throw new BookingConflictException("Lane " + booking.getLane().getId() + " is already booked between "
+                + booking.getStartTime() + " and " + booking.getEndTime());
+        }
     }
-} 
\ No newline at end of file
+} 
@@ -0,0 +1,132 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.UserChangedEvent;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.repository.DashboardStatsView;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the admin dashboard numbers from a short-lived snapshot. The snapshot is
+ * loaded with a single aggregate query, refreshed in the background once it is
+ * older than the TTL or a booking/user write invalidates it, and concurrent
+ * refreshes share one query.
+ */
+@Service
+public class DashboardStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${ibowl.dashboard.ttl-ms:5000}")
+    private long ttlMillis;
+
+    private record Snapshot(Map<String, Object> stats, long loadedAt, long generation) {
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-stats-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Returns the latest snapshot. Only the very first call waits for the database;
+     * afterwards a stale snapshot is returned while a refresh runs in the background.
+     */
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return refresh().join().stats();
+        }
+        if (isStale(current)) {
+            refresh();
+        }
+        return current.stats();
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate();
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Marks the snapshot stale; the next read triggers the background refresh, so a
+     * burst of writes costs at most one query per dashboard poll.
+     */
+    private void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private boolean isStale(Snapshot current) {
+        return current.generation() != generation.get()
+            || System.currentTimeMillis() - current.loadedAt() > ttlMillis;
+    }
+
+    /**
+     * Starts a refresh unless one is already running, in which case its result is shared.
+     */
+    private CompletableFuture<Snapshot> refresh() {
+        CompletableFuture<Snapshot> next = new CompletableFuture<>();
+        while (!inFlight.compareAndSet(null, next)) {
+            // read once: the running one may complete and clear itself at any moment
+            CompletableFuture<Snapshot> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+        }
+        refresher.execute(() -> {
+            try {
+                long startedGeneration = generation.get();
+                Snapshot loaded = new Snapshot(load(), System.currentTimeMillis(), startedGeneration);
+                snapshot.set(loaded);
+                inFlight.compareAndSet(next, null);
+                next.complete(loaded);
+            } catch (RuntimeException e) {
+                logger.error("Failed to refresh dashboard stats: {}", e.getMessage());
+                inFlight.compareAndSet(next, null);
+                next.completeExceptionally(e);
+            }
+        });
+        return next;
+    }
+
+    private Map<String, Object> load() {
+        DashboardStatsView view = bookingRepository.getDashboardStats();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalUsers", view.getTotalUsers());
+        stats.put("totalBookings", view.getTotalBookings());
+        stats.put("totalRevenue", view.getTotalRevenue() != null ? view.getTotalRevenue() : BigDecimal.ZERO);
+        stats.put("activeBookings", view.getActiveBookings());
+        return Map.copyOf(stats);
+    }
+}
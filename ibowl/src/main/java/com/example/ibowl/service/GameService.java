@@ -1,17 +1,48 @@
 package com.example.ibowl.service;
 
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
 import com.example.ibowl.entity.Game;
+import com.example.ibowl.repository.BookingRepository;
 import com.example.ibowl.repository.GameRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class GameService {
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${ibowl.scoring.idle-ms:3600000}")
+    private long idleMillis;
+
+    /**
+     * Score card of a game being bowled. Rolls on the same game are serialized on
+     * the card; the row is written after every roll, so the cache can always be dropped.
+     */
+    private static final class LiveGame {
+        final ScoreCard card;
+        long lastRollAt;
+
+        LiveGame(ScoreCard card) {
+            this.card = card;
+            this.lastRollAt = System.currentTimeMillis();
+        }
+    }
+
+    private final ConcurrentHashMap<Long, LiveGame> liveGames = new ConcurrentHashMap<>();
+
     public List<Game> findAll() {
         return gameRepository.findAll();
     }
@@ -23,4 +54,120 @@ public class GameService {
     public Game save(Game game) {
         return gameRepository.save(game);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Starts the next game of a booking with an empty score card.
+     */
+    public Game startGame(Long bookingId, int players) {
+        Booking booking = bookingRepository.findById(bookingId)
+            .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+        if (booking.getStatus() == BookingStatus.CANCELLED) {
+            throw new IllegalArgumentException("Booking is cancelled");
+        }
+        if (booking.getPlayers() != null && players > booking.getPlayers()) {
+            throw new IllegalArgumentException("Booking is for " + booking.getPlayers() + " players");
+        }
+        ScoreCard card = new ScoreCard(players);
+        Game game = new Game();
+        game.setBooking(booking);
+        game.setGameNumber((int) gameRepository.countByBookingId(bookingId) + 1);
+        game.setRolls(card.toBytes());
+        Game saved = gameRepository.save(game);
+        liveGames.put(saved.getId(), new LiveGame(card));
+        return saved;
+    }
+
+    /**
+     * Records one ball and writes the updated score card and totals back to the game.
+     * A card that was dropped while this call waited for it (failed write, finished
+     * or idle game) is not used; the roll goes onto a card reloaded from the row.
+     * @param player zero-based player index
+     */
+    public Map<String, Object> recordRoll(Long gameId, int player, int pins) {
+        while (true) {
+            LiveGame live = liveGames.computeIfAbsent(gameId, id -> new LiveGame(loadCard(id)));
+            synchronized (live) {
+                if (liveGames.get(gameId) != live) {
+                    continue;
+                }
+                ScoreCard card = live.card;
+                card.roll(player, pins);
+                live.lastRollAt = System.currentTimeMillis();
+                try {
+                    gameRepository.updateRolls(gameId, card.toBytes(),
+                        score(card, 0), score(card, 1), score(card, 2), score(card, 3), score(card, 4), score(card, 5));
+                } catch (RuntimeException e) {
+                    // the card is ahead of the row now; the next roll reloads it
+                    liveGames.remove(gameId, live);
+                    throw e;
+                }
+                if (card.isComplete()) {
+                    liveGames.remove(gameId, live);
+                }
+                return toScoreMap(gameId, card);
+            }
+        }
+    }
+
+    public Map<String, Object> getScores(Long gameId) {
+        LiveGame live = liveGames.get(gameId);
+        if (live != null) {
+            synchronized (live) {
+                return toScoreMap(gameId, live.card);
+            }
+        }
+        return toScoreMap(gameId, loadCard(gameId));
+    }
+
+    /**
+     * Drops the cards of games nobody has rolled on for a while; they are reloaded
+     * from the row if play resumes.
+     */
+    @Scheduled(fixedDelayString = "${ibowl.scoring.sweep-ms:600000}")
+    public void evictIdleGames() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        liveGames.entrySet().removeIf(entry -> entry.getValue().lastRollAt < cutoff);
+    }
+
+    private ScoreCard loadCard(Long gameId) {
+        Game game = gameRepository.findById(gameId)
+            .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+        if (game.getRolls() == null) {
+            throw new IllegalArgumentException("Game has no frame data");
+        }
+        return ScoreCard.fromBytes(game.getRolls());
+    }
+
+    private static Integer score(ScoreCard card, int player) {
+        return player < card.players() ? card.score(player) : null;
+    }
+
+    private static Map<String, Object> toScoreMap(Long gameId, ScoreCard card) {
+        List<Map<String, Object>> players = new ArrayList<>();
+        for (int player = 0; player < card.players(); player++) {
+            List<Integer> rolls = new ArrayList<>();
+            for (int i = 0; i < card.rollCount(player); i++) {
+                rolls.add(card.pins(player, i));
+            }
+            List<Integer> frames = new ArrayList<>();
+            for (int frame = 0; frame < ScoreCard.FRAMES; frame++) {
+                int total = card.frameTotal(player, frame);
+                frames.add(total >= 0 ? total : null);
+            }
+            Map<String, Object> playerMap = new HashMap<>();
+            playerMap.put("player", player + 1);
+            playerMap.put("rolls", rolls);
+            playerMap.put("frames", frames);
+            playerMap.put("score", card.score(player));
+            playerMap.put("currentFrame", Math.min(card.currentFrame(player) + 1, ScoreCard.FRAMES));
+            playerMap.put("pinsStanding", card.pinsStanding(player));
+            playerMap.put("finished", card.isFinished(player));
+            players.add(playerMap);
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("gameId", gameId);
+        result.put("complete", card.isComplete());
+        result.put("players", players);
+        return result;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.ibowl.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by booking id. Four levels of 64 buckets cover
+ * 64^4 ticks; a timer sits in the coarsest level that still resolves it and moves
+ * down one level each time its bucket comes round. Scheduling and cancelling
+ * unlink or link one node, whatever the number of pending timers.
+ */
+public final class HoldTimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    private static final class Node {
+        final long id;
+        long deadline;
+        int level;
+        int slot;
+        Node prev;
+        Node next;
+
+        Node(long id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+
+    private final Node[][] buckets = new Node[LEVELS][SLOTS];
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private long currentTick;
+
+    public HoldTimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedules (or reschedules) the timer of {@code id} to fire at {@code deadlineTick}.
+     */
+    public synchronized void schedule(long id, long deadlineTick) {
+        Node node = nodes.get(id);
+        if (node != null) {
+            unlink(node);
+            node.deadline = deadlineTick;
+        } else {
+            node = new Node(id, deadlineTick);
+            nodes.put(id, node);
+        }
+        place(node);
+    }
+
+    public synchronized boolean cancel(long id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowTick} and returns the ids whose deadline has passed.
+     */
+    public synchronized List<Long> advance(long nowTick) {
+        List<Long> expired = new ArrayList<>();
+        while (currentTick < nowTick) {
+            currentTick++;
+            // Higher levels first, so timers they hand down can cascade again in the same tick
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (BITS * level)) & MASK));
+                }
+            }
+            int slot = (int) (currentTick & MASK);
+            Node node = buckets[0][slot];
+            buckets[0][slot] = null;
+            while (node != null) {
+                Node next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.deadline <= currentTick) {
+                    nodes.remove(node.id);
+                    expired.add(node.id);
+                } else {
+                    place(node);
+                }
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    private void cascade(int level, int slot) {
+        Node node = buckets[level][slot];
+        buckets[level][slot] = null;
+        while (node != null) {
+            Node next = node.next;
+            node.prev = null;
+            node.next = null;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node node) {
+        long delta = node.deadline - currentTick;
+        int level;
+        long target;
+        if (delta <= 0) {
+            // overdue: fire on the next tick
+            level = 0;
+            target = currentTick + 1;
+        } else if (delta >= SPAN) {
+            // beyond the wheel: park in the last top-level bucket and re-place when it comes round
+            level = LEVELS - 1;
+            target = currentTick + SPAN - 1;
+        } else {
+            level = (63 - Long.numberOfLeadingZeros(delta)) / BITS;
+            target = node.deadline;
+        }
+        node.level = level;
+        node.slot = (int) ((target >>> (BITS * level)) & MASK);
+        Node head = buckets[level][node.slot];
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        buckets[level][node.slot] = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else if (buckets[node.level][node.slot] == node) {
+            buckets[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+}
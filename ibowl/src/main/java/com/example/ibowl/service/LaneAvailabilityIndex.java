@@ -0,0 +1,216 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.LaneClass;
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.event.LaneChangedEvent;
+import com.example.ibowl.repository.LaneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-lane, per-day bitmap of booked 15-minute slots, derived from the
+ * {@link LaneBookingIndex} and refreshed on every booking write. A day is two
+ * {@code long} words; availability searches only AND masks against them.
+ */
+@Component
+public class LaneAvailabilityIndex {
+    static final int SLOT_MINUTES = 15;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS_PER_DAY = (SLOTS_PER_DAY + 63) / 64;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private LaneBookingIndex laneBookingIndex;
+
+    @Autowired
+    private LaneRepository laneRepository;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Value("${ibowl.booking.max-players-per-lane:6}")
+    private int maxPlayersPerLane;
+
+    // lane id -> epoch day -> slot words; word arrays are never mutated once published
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, long[]>> days = new ConcurrentHashMap<>();
+
+    // lanes ordered by number, replaced wholesale when a lane changes
+    private volatile LaneInfo[] lanes = new LaneInfo[0];
+
+    private record LaneInfo(Long id, Integer number, LaneStatus status, boolean active, LaneClass laneClass) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void load() {
+        reloadLanes(laneRepository.findAll());
+        for (Long laneId : laneBookingIndex.laneIds()) {
+            Map<Long, long[]> built = new HashMap<>();
+            laneBookingIndex.forEachInterval(laneId, Long.MIN_VALUE / 2, Long.MAX_VALUE / 2,
+                (start, end) -> markSlots(built, start, end));
+            days.put(laneId, new ConcurrentHashMap<>(built));
+        }
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        refresh(event.before());
+        refresh(event.after());
+    }
+
+    /**
+     * Replaces the cached metadata of a lane after it was saved.
+     */
+    @EventListener
+    public synchronized void onLaneChanged(LaneChangedEvent event) {
+        List<LaneInfo> updated = new ArrayList<>(Arrays.asList(lanes));
+        updated.removeIf(info -> info.id().equals(event.laneId()));
+        updated.add(new LaneInfo(event.laneId(), event.number(), event.status(), event.active(), event.laneClass()));
+        updated.sort(Comparator.comparing(LaneInfo::number, Comparator.nullsLast(Comparator.naturalOrder())));
+        lanes = updated.toArray(new LaneInfo[0]);
+    }
+
+    /**
+     * Lists the lanes that are active, not under maintenance and have no booking
+     * between {@code from} and {@code to} on the given day, each with its price for
+     * an even share of the players.
+     */
+    public Map<String, Object> findFreeLanes(LocalDate date, LocalTime from, LocalTime to, int players) {
+        int fromMinute = from.toSecondOfDay() / 60;
+        int toMinute = to.equals(LocalTime.MIDNIGHT) ? (int) MINUTES_PER_DAY : to.toSecondOfDay() / 60;
+        if (toMinute <= fromMinute) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (players < 1) {
+            throw new IllegalArgumentException("At least one player is required");
+        }
+        long[] mask = new long[WORDS_PER_DAY];
+        setBits(mask, fromMinute / SLOT_MINUTES, (toMinute + SLOT_MINUTES - 1) / SLOT_MINUTES);
+
+        int lanesNeeded = (players + maxPlayersPerLane - 1) / maxPlayersPerLane;
+        int playersPerLane = (players + lanesNeeded - 1) / lanesNeeded;
+        long epochDay = date.toEpochDay();
+        long startMinute = epochDay * MINUTES_PER_DAY + fromMinute;
+        long endMinute = epochDay * MINUTES_PER_DAY + toMinute;
+        List<Map<String, Object>> freeLanes = new ArrayList<>();
+        for (LaneInfo lane : lanes) {
+            if (!lane.active() || lane.status() == LaneStatus.MAINTENANCE) {
+                continue;
+            }
+            if (isFree(lane.id(), epochDay, mask)) {
+                Map<String, Object> laneMap = new HashMap<>();
+                laneMap.put("id", lane.id());
+                laneMap.put("number", lane.number());
+                laneMap.put("laneClass", lane.laneClass() != null ? lane.laneClass().toString() : LaneClass.STANDARD.toString());
+                laneMap.put("price", BigDecimal.valueOf(
+                    pricingEngine.quoteCents(lane.laneClass(), startMinute, endMinute, playersPerLane), 2));
+                freeLanes.add(laneMap);
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("date", date.toString());
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("players", players);
+        result.put("lanesNeeded", lanesNeeded);
+        result.put("available", freeLanes.size() >= lanesNeeded);
+        result.put("freeLanes", freeLanes);
+        return result;
+    }
+
+    private boolean isFree(Long laneId, long epochDay, long[] mask) {
+        Map<Long, long[]> laneDays = days.get(laneId);
+        if (laneDays == null) {
+            return true;
+        }
+        long[] words = laneDays.get(epochDay);
+        if (words == null) {
+            return true;
+        }
+        for (int i = 0; i < WORDS_PER_DAY; i++) {
+            if ((words[i] & mask[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the days touched by one side of a booking change from the interval index,
+     * so slots shared with other bookings on the same lane stay marked. Refreshes run
+     * after the lane lock is released, so two writes on a lane may refresh in either
+     * order; each day is rebuilt inside {@code compute}, which serializes refreshes of
+     * the same day and makes the last one read the latest intervals.
+     */
+    private void refresh(BookingSnapshot booking) {
+        if (booking == null || booking.laneId() == null || booking.startTime() == null || booking.endTime() == null) {
+            return;
+        }
+        Long laneId = booking.laneId();
+        long firstDay = Math.floorDiv(LaneBookingIndex.toMinutes(booking.startTime()), MINUTES_PER_DAY);
+        long lastDay = Math.floorDiv(LaneBookingIndex.toMinutes(booking.endTime()) - 1, MINUTES_PER_DAY);
+        ConcurrentHashMap<Long, long[]> laneDays = days.computeIfAbsent(laneId, id -> new ConcurrentHashMap<>());
+        for (long day = firstDay; day <= lastDay; day++) {
+            laneDays.compute(day, (d, previous) -> rebuildDay(laneId, d));
+        }
+    }
+
+    /**
+     * Slot words of one day of a lane, or null when nothing is booked that day.
+     */
+    private long[] rebuildDay(Long laneId, long day) {
+        long dayStart = day * MINUTES_PER_DAY;
+        Map<Long, long[]> rebuilt = new HashMap<>();
+        laneBookingIndex.forEachInterval(laneId, dayStart, dayStart + MINUTES_PER_DAY,
+            (start, end) -> markSlots(rebuilt, Math.max(start, dayStart), Math.min(end, dayStart + MINUTES_PER_DAY)));
+        return rebuilt.get(day);
+    }
+
+    private static void markSlots(Map<Long, long[]> target, long startMinute, long endMinute) {
+        long day = Math.floorDiv(startMinute, MINUTES_PER_DAY);
+        while (day * MINUTES_PER_DAY < endMinute) {
+            long dayStart = day * MINUTES_PER_DAY;
+            int fromSlot = (int) ((Math.max(startMinute, dayStart) - dayStart) / SLOT_MINUTES);
+            int toSlot = (int) ((Math.min(endMinute, dayStart + MINUTES_PER_DAY) - dayStart + SLOT_MINUTES - 1) / SLOT_MINUTES);
+            setBits(target.computeIfAbsent(day, d -> new long[WORDS_PER_DAY]), fromSlot, toSlot);
+            day++;
+        }
+    }
+
+    private static void setBits(long[] words, int fromSlot, int toSlot) {
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            words[slot >>> 6] |= 1L << (slot & 63);
+        }
+    }
+
+    private synchronized void reloadLanes(List<Lane> all) {
+        lanes = all.stream()
+            .map(LaneAvailabilityIndex::toInfo)
+            .sorted(Comparator.comparing(LaneInfo::number, Comparator.nullsLast(Comparator.naturalOrder())))
+            .toArray(LaneInfo[]::new);
+    }
+
+    private static LaneInfo toInfo(Lane lane) {
+        return new LaneInfo(lane.getId(), lane.getNumber(), lane.getStatus(), Boolean.TRUE.equals(lane.getIsActive()),
+            lane.getLaneClass());
+    }
+}
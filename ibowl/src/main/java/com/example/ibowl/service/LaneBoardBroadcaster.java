@@ -0,0 +1,202 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.event.LaneBoardEvent;
+import com.example.ibowl.event.LaneChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans lane status and booking deltas out to every connected lane board through
+ * one multicast sink. Each subscriber coalesces bursts of updates to the latest
+ * event per lane/booking and keeps a bounded buffer, so a slow screen drops its
+ * oldest batches instead of holding back the others, then gets a fresh snapshot.
+ */
+@Component
+public class LaneBoardBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(LaneBoardBroadcaster.class);
+
+    @Autowired
+    private LaneStateBoard laneStateBoard;
+
+    @Autowired
+    private LaneBookingIndex laneBookingIndex;
+
+    @Value("${ibowl.lane-board.coalesce-ms:250}")
+    private long coalesceMillis;
+
+    @Value("${ibowl.lane-board.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${ibowl.lane-board.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    private final Sinks.Many<LaneBoardEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    private volatile long lastTickMinute = currentMinute();
+
+    /**
+     * Current lane states followed by live deltas and a periodic heartbeat comment.
+     */
+    public Flux<ServerSentEvent<LaneBoardEvent>> subscribe() {
+        Flux<ServerSentEvent<LaneBoardEvent>> events = Flux.defer(this::laneEvents)
+            .map(event -> ServerSentEvent.builder(event).event(event.type()).build());
+        Flux<ServerSentEvent<LaneBoardEvent>> heartbeats = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+            .map(tick -> ServerSentEvent.<LaneBoardEvent>builder().comment("heartbeat").build());
+        return Flux.merge(events, heartbeats);
+    }
+
+    /**
+     * One subscriber's events. It joins the sink before the snapshot is read, so a delta
+     * published in between waits in its queue instead of being lost. Whenever the queue
+     * or the batch buffer overflows, the next batch is followed by RESYNC and a fresh
+     * snapshot taken after the dropped deltas.
+     */
+    private Flux<LaneBoardEvent> laneEvents() {
+        AtomicBoolean resync = new AtomicBoolean();
+        Sinks.Many<LaneBoardEvent> pending = Sinks.many().unicast()
+            .onBackpressureBuffer(Queues.<LaneBoardEvent>get(subscriberBuffer).get());
+        // publish() is synchronized, so this is the queue's only producer
+        Disposable live = sink.asFlux().subscribe(event -> {
+            if (pending.tryEmitNext(event).isFailure()) {
+                resync.set(true);
+            }
+        });
+        List<LaneBoardEvent> initial = snapshot();
+
+        Flux<LaneBoardEvent> deltas = pending.asFlux()
+            .buffer(Duration.ofMillis(coalesceMillis))
+            .filter(batch -> !batch.isEmpty())
+            .map(LaneBoardBroadcaster::coalesce)
+            .onBackpressureBuffer(subscriberBuffer, dropped -> resync.set(true), BufferOverflowStrategy.DROP_OLDEST)
+            .flatMapIterable(batch -> resync.getAndSet(false) ? withSnapshot(batch) : batch);
+        return Flux.fromIterable(initial).concatWith(deltas)
+            .doFinally(signal -> live.dispose());
+    }
+
+    private List<LaneBoardEvent> snapshot() {
+        return laneStateBoard.lanes().stream()
+            .map(lane -> laneStatus(lane.laneId(), lane.number(), lane.status(), lane.active()))
+            .toList();
+    }
+
+    private List<LaneBoardEvent> withSnapshot(List<LaneBoardEvent> batch) {
+        List<LaneBoardEvent> events = new ArrayList<>(batch);
+        events.add(new LaneBoardEvent(LaneBoardEvent.RESYNC, null, null, null, null,
+            null, null, null, null, LocalDateTime.now()));
+        events.addAll(snapshot());
+        logger.debug("Lane board subscriber fell behind, resending {} lane states", events.size() - batch.size() - 1);
+        return events;
+    }
+
+    public int subscriberCount() {
+        return sink.currentSubscriberCount();
+    }
+
+    @EventListener
+    public void onLaneChanged(LaneChangedEvent event) {
+        publish(laneStatus(event.laneId(), event.number(), event.status(), event.active()));
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.isDelete()) {
+            publish(booking(LaneBoardEvent.BOOKING_REMOVED, event.before()));
+        } else {
+            publish(booking(LaneBoardEvent.BOOKING_CHANGED, event.after()));
+        }
+    }
+
+    /**
+     * Announces bookings that started or ended since the previous tick. Runs off the
+     * in-memory interval index and is skipped entirely while no board is connected.
+     */
+    @Scheduled(fixedDelayString = "${ibowl.lane-board.tick-ms:15000}")
+    public void tick() {
+        long previous = lastTickMinute;
+        long now = currentMinute();
+        lastTickMinute = now;
+        if (now <= previous || subscriberCount() == 0) {
+            return;
+        }
+        for (LaneStateBoard.LaneState lane : laneStateBoard.lanes()) {
+            laneBookingIndex.forEachInterval(lane.laneId(), previous, now + 1, (start, end) -> {
+                if (start > previous && start <= now) {
+                    publish(boundary(LaneBoardEvent.BOOKING_STARTED, lane, start, end, start));
+                }
+                if (end > previous && end <= now) {
+                    publish(boundary(LaneBoardEvent.BOOKING_ENDED, lane, start, end, end));
+                }
+            });
+        }
+    }
+
+    // Sinks are not safe for concurrent emission, and events arrive from request threads
+    private synchronized void publish(LaneBoardEvent event) {
+        Sinks.EmitResult result = sink.tryEmitNext(event);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            logger.warn("Could not publish lane board event {}: {}", event.type(), result);
+        }
+    }
+
+    /**
+     * Keeps only the last event per key, in the order the keys were last touched.
+     */
+    private static List<LaneBoardEvent> coalesce(List<LaneBoardEvent> batch) {
+        if (batch.size() == 1) {
+            return batch;
+        }
+        Map<String, LaneBoardEvent> latest = new LinkedHashMap<>();
+        for (LaneBoardEvent event : batch) {
+            latest.remove(event.coalesceKey());
+            latest.put(event.coalesceKey(), event);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private static LaneBoardEvent laneStatus(Long laneId, Integer number, LaneStatus status, boolean active) {
+        return new LaneBoardEvent(LaneBoardEvent.LANE_STATUS, laneId, number, status, active,
+            null, null, null, null, LocalDateTime.now());
+    }
+
+    private LaneBoardEvent booking(String type, BookingSnapshot booking) {
+        LaneStateBoard.LaneState lane = booking.laneId() != null ? laneStateBoard.getById(booking.laneId()) : null;
+        return new LaneBoardEvent(type, booking.laneId(), lane != null ? lane.number() : null, null, null,
+            booking.id(), booking.status(), booking.startTime(), booking.endTime(), LocalDateTime.now());
+    }
+
+    private static LaneBoardEvent boundary(String type, LaneStateBoard.LaneState lane, long start, long end, long at) {
+        return new LaneBoardEvent(type, lane.laneId(), lane.number(), null, null,
+            null, null, fromMinutes(start), fromMinutes(end), fromMinutes(at));
+    }
+
+    private static LocalDateTime fromMinutes(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static long currentMinute() {
+        return LaneBookingIndex.toMinutes(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-lane index of the time intervals held by active bookings.
+ * Conflict checks are answered from here without a database round trip;
+ * the bookings table stays the source of truth and is loaded once at startup.
+ */
+@Component
+public class LaneBookingIndex {
+    private static final Logger logger = LoggerFactory.getLogger(LaneBookingIndex.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final ConcurrentHashMap<Long, LaneIntervals> lanes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> laneByBooking = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void load() {
+        List<Object[]> rows = bookingRepository.findActiveIntervals();
+        for (Object[] row : rows) {
+            put((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+        }
+        logger.info("Loaded {} active bookings on {} lanes", rows.size(), lanes.size());
+    }
+
+    /**
+     * Returns true if the given interval overlaps an active booking on the lane.
+     * @param ignoreBookingId booking to leave out of the check (when it is being updated), may be null
+     */
+    public boolean hasConflict(Long laneId, LocalDateTime start, LocalDateTime end, Long ignoreBookingId) {
+        LaneIntervals intervals = lanes.get(laneId);
+        if (intervals == null) {
+            return false;
+        }
+        long ignore = ignoreBookingId != null ? ignoreBookingId : Long.MIN_VALUE;
+        return intervals.overlaps(toMinutes(start), toMinutes(end), ignore);
+    }
+
+    /**
+     * Brings the index in line with the saved state of a booking: active bookings
+     * are (re)inserted on their lane, cancelled ones are dropped.
+     */
+    public void index(Booking booking) {
+        if (booking.getId() == null) {
+            return;
+        }
+        if (booking.getLane() == null || !isActive(booking.getStatus())
+                || booking.getStartTime() == null || booking.getEndTime() == null) {
+            remove(booking.getId());
+            return;
+        }
+        put(booking.getId(), booking.getLane().getId(), booking.getStartTime(), booking.getEndTime());
+    }
+
+    public void remove(Long bookingId) {
+        Long laneId = laneByBooking.remove(bookingId);
+        if (laneId != null) {
+            LaneIntervals intervals = lanes.get(laneId);
+            if (intervals != null) {
+                intervals.remove(bookingId);
+            }
+        }
+    }
+
+    public Set<Long> laneIds() {
+        return lanes.keySet();
+    }
+
+    /**
+     * Visits, in start order, every indexed interval on the lane that overlaps [from, to).
+     * Times are in epoch minutes.
+     */
+    public void forEachInterval(Long laneId, long fromMinute, long toMinute, IntervalConsumer consumer) {
+        LaneIntervals intervals = lanes.get(laneId);
+        if (intervals != null) {
+            intervals.forEach(fromMinute, toMinute, consumer);
+        }
+    }
+
+    @FunctionalInterface
+    public interface IntervalConsumer {
+        void accept(long startMinute, long endMinute);
+    }
+
+    private void put(Long bookingId, Long laneId, LocalDateTime start, LocalDateTime end) {
+        Long previousLane = laneByBooking.put(bookingId, laneId);
+        if (previousLane != null && !previousLane.equals(laneId)) {
+            lanes.get(previousLane).remove(bookingId);
+        }
+        lanes.computeIfAbsent(laneId, id -> new LaneIntervals())
+            .put(bookingId, toMinutes(start), toMinutes(end));
+    }
+
+    /**
+     * Bookings in these states hold their lane; cancelled ones free it.
+     */
+    public static boolean isActive(BookingStatus status) {
+        return status != null && status != BookingStatus.CANCELLED;
+    }
+
+    public static long toMinutes(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private record Interval(long start, long end, long bookingId) implements Comparable<Interval> {
+        @Override
+        public int compareTo(Interval other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Long.compare(bookingId, other.bookingId);
+        }
+    }
+
+    /**
+     * Intervals of one lane ordered by start. Overlap lookups only scan the
+     * entries starting within the longest booking length before the query,
+     * so a check touches a handful of neighbours regardless of history size.
+     * Lengths are counted per value so that bound shrinks again once the longest
+     * booking is shortened or removed.
+     */
+    private static final class LaneIntervals {
+        private final TreeSet<Interval> byStart = new TreeSet<>();
+        private final Map<Long, Interval> byBooking = new HashMap<>();
+        private final TreeMap<Long, Integer> lengthCounts = new TreeMap<>();
+        private long maxLength;
+
+        synchronized void put(long bookingId, long start, long end) {
+            Interval previous = byBooking.remove(bookingId);
+            if (previous != null) {
+                byStart.remove(previous);
+                removeLength(previous);
+            }
+            Interval interval = new Interval(start, end, bookingId);
+            byStart.add(interval);
+            byBooking.put(bookingId, interval);
+            lengthCounts.merge(end - start, 1, Integer::sum);
+            maxLength = lengthCounts.lastKey();
+        }
+
+        synchronized void remove(long bookingId) {
+            Interval previous = byBooking.remove(bookingId);
+            if (previous != null) {
+                byStart.remove(previous);
+                removeLength(previous);
+                maxLength = lengthCounts.isEmpty() ? 0 : lengthCounts.lastKey();
+            }
+        }
+
+        private void removeLength(Interval interval) {
+            lengthCounts.computeIfPresent(interval.end - interval.start, (length, count) -> count > 1 ? count - 1 : null);
+        }
+
+        synchronized boolean overlaps(long start, long end, long ignoreBookingId) {
+            Interval from = new Interval(start - maxLength, 0, Long.MIN_VALUE);
+            Interval to = new Interval(end, 0, Long.MIN_VALUE);
+            for (Interval candidate : byStart.subSet(from, true, to, false)) {
+                if (candidate.end > start && candidate.bookingId != ignoreBookingId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void forEach(long start, long end, IntervalConsumer consumer) {
+            Interval from = new Interval(start - maxLength, 0, Long.MIN_VALUE);
+            Interval to = new Interval(end, 0, Long.MIN_VALUE);
+            for (Interval candidate : byStart.subSet(from, true, to, false)) {
+                if (candidate.end > start) {
+                    consumer.accept(candidate.start, candidate.end);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ibowl.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks that serialize booking writes per lane. Writes on different
+ * lanes almost always take different stripes and proceed in parallel.
+ */
+@Component
+public class LaneLocks {
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public LaneLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forLane(Long laneId) {
+        return locks[stripe(laneId)];
+    }
+
+    /**
+     * Locks covering all the given lanes, each stripe once and in stripe order,
+     * so callers that lock several lanes cannot deadlock each other.
+     */
+    public List<Lock> forLanes(Collection<Long> laneIds) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long laneId : laneIds) {
+            stripes.add(stripe(laneId));
+        }
+        List<Lock> result = new ArrayList<>(stripes.size());
+        for (Integer stripe : stripes) {
+            result.add(locks[stripe]);
+        }
+        return result;
+    }
+
+    private static int stripe(Long laneId) {
+        int h = laneId.hashCode();
+        h ^= (h >>> 16);
+        return h & (STRIPES - 1);
+    }
+}
@@ -1,48 +1,89 @@
 package com.example.ibowl.service;
 
 import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.exception.ResourceNotFoundException;
 import com.example.ibowl.repository.LaneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.HashMap;
 
 @Service
 public class LaneService {
     @Autowired
     private LaneRepository laneRepository;
 
+    @Autowired
+    private LaneAvailabilityIndex laneAvailabilityIndex;
+
+    @Autowired
+    private LaneStateBoard laneStateBoard;
+
+    @Autowired
+    private LaneUtilizationService laneUtilizationService;
+
+    /**
+     * All lanes with their live status from the board; the rows only catch up on the next flush.
+     */
     public List<Lane> findAll() {
-        return laneRepository.findAll();
+        List<Lane> lanes = laneRepository.findAll();
+        lanes.forEach(this::overlayStatus);
+        return lanes;
     }
 
     public Optional<Lane> findById(Long id) {
-        return laneRepository.findById(id);
+        return laneRepository.findById(id).map(this::overlayStatus);
     }
 
     public Lane save(Lane lane) {
-        return laneRepository.save(lane);
+        Lane saved = laneRepository.save(lane);
+        laneStateBoard.register(saved);
+        return saved;
+    }
+
+    public List<LaneStateBoard.LaneState> getLaneStates() {
+        return laneStateBoard.lanes();
+    }
+
+    /**
+     * Changes a lane's status on the in-memory board; the database catches up on the next flush.
+     * @param expected status the caller last saw, or null to overwrite unconditionally
+     * @return the new state, or null if the lane changed since the caller read it
+     */
+    public LaneStateBoard.LaneState updateStatus(Long laneId, LaneStatus expected, LaneStatus status) {
+        LaneStateBoard.LaneState current = laneStateBoard.getById(laneId);
+        if (current == null) {
+            throw new ResourceNotFoundException("Lane not found");
+        }
+        return expected != null
+            ? laneStateBoard.transition(current.number(), expected, status)
+            : laneStateBoard.setStatus(current.number(), status);
+    }
+
+    public Map<String, Object> findFreeLanes(LocalDate date, LocalTime from, LocalTime to, int players) {
+        return laneAvailabilityIndex.findFreeLanes(date, from, to, players);
+    }
+
+    // The board's status is the one the next flush writes, so it is safe on a managed entity too
+    private Lane overlayStatus(Lane lane) {
+        LaneStateBoard.LaneState state = laneStateBoard.getById(lane.getId());
+        if (state != null) {
+            lane.setStatus(state.status());
+        }
+        return lane;
     }
 
     // Admin methods
     public List<Lane> getAllLanes() {
-        return laneRepository.findAll();
+        return findAll();
     }
 
-    public List<Map<String, Object>> getLanePerformance() {
-        List<Lane> lanes = laneRepository.findAll();
-        return lanes.stream()
-            .map(lane -> {
-                Map<String, Object> laneMap = new HashMap<>();
-                laneMap.put("laneNumber", lane.getNumber());
-                laneMap.put("status", lane.getStatus().toString());
-                laneMap.put("isActive", lane.getIsActive());
-                laneMap.put("bookingCount", 0); // This would be calculated from bookings
-                laneMap.put("utilization", 0.0); // This would be calculated from bookings
-                return laneMap;
-            })
-            .toList();
+    public List<Map<String, Object>> getLanePerformance(LocalDateTime from, LocalDateTime to) {
+        return laneUtilizationService.getLanePerformance(findAll(), from, to);
     }
 } 
\ No newline at end of file
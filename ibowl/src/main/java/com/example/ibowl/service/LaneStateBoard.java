@@ -0,0 +1,313 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.LaneClass;
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.event.LaneChangedEvent;
+import com.example.ibowl.repository.LaneRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Authoritative lane status held in memory, one atomic slot per lane number.
+ * Transitions are compare-and-set on immutable {@link LaneState} values, every
+ * accepted change gets a global version and lands in a fixed-size change log, and
+ * dirty lanes are written back to the database in coalesced batches. Writers never
+ * wait for each other: readers only see versions up to the published one, the end of
+ * the run of versions whose change log entries are already written.
+ */
+@Component
+public class LaneStateBoard {
+    private static final Logger logger = LoggerFactory.getLogger(LaneStateBoard.class);
+    private static final int CHANGE_LOG_SIZE = 1024;
+
+    @Autowired
+    private LaneRepository laneRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicReferenceArray<LaneState> slots;
+    private final ConcurrentHashMap<Long, Integer> numberById = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicReferenceArray<LogEntry> changeLog = new AtomicReferenceArray<>(CHANGE_LOG_SIZE);
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * State of one lane at a given version. Instances are never mutated.
+     */
+    public record LaneState(Long laneId, int number, LaneStatus status, boolean active, LaneClass laneClass, long version) {
+    }
+
+    /**
+     * Lanes changed after a poller's version, and the version to ask from next time.
+     */
+    public record Changes(long version, List<LaneState> lanes) {
+    }
+
+    // A version's change log entry; state is null for a version lost to a failed compare-and-set
+    private record LogEntry(long version, LaneState state) {
+    }
+
+    public LaneStateBoard(@Value("${ibowl.lanes.max-number:256}") int maxLaneNumber) {
+        this.slots = new AtomicReferenceArray<>(maxLaneNumber + 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void load() {
+        List<Lane> lanes = laneRepository.findAll();
+        for (Lane lane : lanes) {
+            if (lane.getNumber() != null) {
+                if (lane.getNumber() < 0 || lane.getNumber() >= slots.length()) {
+                    logger.warn("Lane {} has number {} outside 0..{}, raise ibowl.lanes.max-number to track it",
+                        lane.getId(), lane.getNumber(), slots.length() - 1);
+                    continue;
+                }
+                int number = lane.getNumber();
+                slots.set(number, new LaneState(lane.getId(), number, lane.getStatus(),
+                    Boolean.TRUE.equals(lane.getIsActive()), lane.getLaneClass(), version.get()));
+                numberById.put(lane.getId(), number);
+            }
+        }
+        logger.info("Loaded {} lanes", numberById.size());
+    }
+
+    public LaneState get(int number) {
+        return number >= 0 && number < slots.length() ? slots.get(number) : null;
+    }
+
+    public LaneState getById(Long laneId) {
+        Integer number = numberById.get(laneId);
+        return number != null ? slots.get(number) : null;
+    }
+
+    public LaneStatus status(int number) {
+        LaneState state = get(number);
+        return state != null ? state.status() : null;
+    }
+
+    /**
+     * All known lanes ordered by number.
+     */
+    public List<LaneState> lanes() {
+        List<LaneState> lanes = new ArrayList<>(numberById.size());
+        for (int number = 0; number < slots.length(); number++) {
+            LaneState state = slots.get(number);
+            if (state != null) {
+                lanes.add(state);
+            }
+        }
+        return lanes;
+    }
+
+    /**
+     * Version every lane in {@link #lanes()} read afterwards is at least as new as.
+     */
+    public long version() {
+        return advancePublished();
+    }
+
+    /**
+     * Moves a lane to {@code next} only if its current status is {@code expected}.
+     * Returns the new state, or null if another writer changed the lane first.
+     */
+    public LaneState transition(int number, LaneStatus expected, LaneStatus next) {
+        LaneState current = get(number);
+        if (current == null) {
+            throw new IllegalArgumentException("Unknown lane number: " + number);
+        }
+        if (current.status() != expected) {
+            return null;
+        }
+        LaneState updated = new LaneState(current.laneId(), number, next, current.active(), current.laneClass(),
+            version.incrementAndGet());
+        if (!swap(number, current, updated)) {
+            return null;
+        }
+        dirty.add(number);
+        eventPublisher.publishEvent(toEvent(updated));
+        return updated;
+    }
+
+    /**
+     * Sets a lane's status whatever it currently is, retrying on contention.
+     */
+    public LaneState setStatus(int number, LaneStatus next) {
+        while (true) {
+            LaneState current = get(number);
+            if (current == null) {
+                throw new IllegalArgumentException("Unknown lane number: " + number);
+            }
+            if (current.status() == next) {
+                return current;
+            }
+            LaneState updated = transition(number, current.status(), next);
+            if (updated != null) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Takes over a lane that was just saved through the repository. The row is already
+     * up to date, so the lane is not marked dirty.
+     */
+    public LaneState register(Lane lane) {
+        int number = checkNumber(lane.getNumber());
+        Integer previousNumber = numberById.put(lane.getId(), number);
+        if (previousNumber != null && previousNumber != number) {
+            slots.set(previousNumber, null);
+            dirty.remove(previousNumber);
+        }
+        while (true) {
+            LaneState current = slots.get(number);
+            LaneState updated = new LaneState(lane.getId(), number, lane.getStatus(),
+                Boolean.TRUE.equals(lane.getIsActive()), lane.getLaneClass(), version.incrementAndGet());
+            if (swap(number, current, updated)) {
+                dirty.remove(number);
+                eventPublisher.publishEvent(toEvent(updated));
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Lane states changed after {@code sinceVersion}, oldest first, or null when the
+     * change log no longer reaches back that far, or the version is from before a restart,
+     * and the caller must reload {@link #lanes()}.
+     */
+    public Changes changesSince(long sinceVersion) {
+        long latest = advancePublished();
+        if (sinceVersion > latest || latest - sinceVersion > CHANGE_LOG_SIZE) {
+            return null;
+        }
+        List<LaneState> changes = new ArrayList<>();
+        for (long v = sinceVersion + 1; v <= latest; v++) {
+            LogEntry entry = changeLog.get((int) (v % CHANGE_LOG_SIZE));
+            if (entry == null || entry.version() != v) {
+                // overwritten by a newer version while reading
+                return null;
+            }
+            // versions lost to a failed compare-and-set leave gaps
+            if (entry.state() != null) {
+                changes.add(entry.state());
+            }
+        }
+        return new Changes(latest, changes);
+    }
+
+    /**
+     * Writes the latest status of every lane changed since the previous flush. Many
+     * transitions of one lane in between collapse into a single UPDATE. The lanes are
+     * loaded, mostly from the second-level cache, and written by dirty checking, so only
+     * their own cache entries are updated; a bulk UPDATE would evict the whole lane region.
+     */
+    @Scheduled(fixedDelayString = "${ibowl.lanes.flush-ms:2000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<LaneState> pending = new ArrayList<>();
+        for (Integer number : dirty) {
+            // Removed before reading so a concurrent transition marks the lane again
+            dirty.remove(number);
+            LaneState state = slots.get(number);
+            if (state != null) {
+                pending.add(state);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (LaneState state : pending) {
+                    laneRepository.findById(state.laneId()).ifPresent(lane -> lane.setStatus(state.status()));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush {} lane states: {}", pending.size(), e.getMessage());
+            pending.forEach(state -> dirty.add(state.number()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Installs {@code updated} if the slot still holds {@code current} and logs its
+     * version either way, so a failed swap leaves a gap rather than a hole that would
+     * hold back the published version.
+     */
+    private boolean swap(int number, LaneState current, LaneState updated) {
+        boolean swapped = slots.compareAndSet(number, current, updated);
+        log(new LogEntry(updated.version(), swapped ? updated : null));
+        advancePublished();
+        return swapped;
+    }
+
+    // An entry never replaces a newer one, so a slow writer cannot bring back a stale version
+    private void log(LogEntry entry) {
+        int index = (int) (entry.version() % CHANGE_LOG_SIZE);
+        while (true) {
+            LogEntry existing = changeLog.get(index);
+            if (existing != null && existing.version() > entry.version()) {
+                return;
+            }
+            if (changeLog.compareAndSet(index, existing, entry)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the published version past every version whose entry has been written. A
+     * version taken but not logged yet stops it there without blocking anyone; an entry
+     * already overwritten by a newer one was written too.
+     */
+    private long advancePublished() {
+        long from = published.get();
+        long latest = version.get();
+        long next = from + 1;
+        while (next <= latest) {
+            LogEntry entry = changeLog.get((int) (next % CHANGE_LOG_SIZE));
+            if (entry == null || entry.version() < next) {
+                break;
+            }
+            next++;
+        }
+        return published.accumulateAndGet(next - 1, Math::max);
+    }
+
+    private int checkNumber(Integer number) {
+        if (number == null || number < 0 || number >= slots.length()) {
+            throw new IllegalArgumentException("Lane number must be between 0 and " + (slots.length() - 1));
+        }
+        return number;
+    }
+
+    private static LaneChangedEvent toEvent(LaneState state) {
+        return new LaneChangedEvent(state.laneId(), state.number(), state.status(), state.active(), state.laneClass());
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.repository.BookingRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes how much of the opening hours each lane was booked over a period.
+ * All bookings are read in one query sorted by lane and start, then each lane
+ * runs a sweep-line over its start/end events on a small dedicated pool.
+ */
+@Service
+public class LaneUtilizationService {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Value("${ibowl.opening-hours.open:10:00}")
+    private String openingTime;
+
+    @Value("${ibowl.opening-hours.close:22:00}")
+    private String closingTime;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    /**
+     * Booked minutes of one lane, in total and per hour of the day.
+     */
+    public record LaneUtilization(int bookingCount, long bookedMinutes, long[] bookedMinutesByHour) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * One report entry per lane. The reported status is the lane's own, so callers pass
+     * lanes with the live board status already applied.
+     */
+    public List<Map<String, Object>> getLanePerformance(List<Lane> lanes, LocalDateTime from, LocalDateTime to) {
+        long fromMinute = LaneBookingIndex.toMinutes(from);
+        long toMinute = LaneBookingIndex.toMinutes(to);
+        int open = LocalTime.parse(openingTime).toSecondOfDay() / 60;
+        int close = LocalTime.parse(closingTime).toSecondOfDay() / 60;
+
+        Map<Long, long[][]> intervalsByLane = loadIntervals(from, to);
+
+        // Capacity is the same for every lane: the opening hours within the period
+        LaneUtilization capacity = sweep(new long[] {fromMinute}, new long[] {toMinute}, 1, fromMinute, toMinute, open, close);
+
+        List<Map<String, Object>> result;
+        try {
+            result = pool.submit(() -> lanes.parallelStream()
+                .map(lane -> {
+                    long[][] intervals = intervalsByLane.getOrDefault(lane.getId(), new long[][] {new long[0], new long[0]});
+                    LaneUtilization usage = sweep(intervals[0], intervals[1], intervals[0].length, fromMinute, toMinute, open, close);
+                    return toMap(lane, usage, capacity);
+                })
+                .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Lane utilization interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Lane utilization failed", e.getCause());
+        }
+        return result;
+    }
+
+    /**
+     * Groups the sorted query rows of (lane id, start, end) into per-lane arrays of
+     * start and end minutes. The query is native, so times arrive as timestamps.
+     */
+    private Map<Long, long[][]> loadIntervals(LocalDateTime from, LocalDateTime to) {
+        List<Object[]> rows = bookingRepository.findActiveIntervalsBetween(from, to);
+        Map<Long, long[][]> byLane = new HashMap<>();
+        int i = 0;
+        while (i < rows.size()) {
+            Long laneId = (Long) rows.get(i)[0];
+            int j = i;
+            while (j < rows.size() && laneId.equals(rows.get(j)[0])) {
+                j++;
+            }
+            long[] starts = new long[j - i];
+            long[] ends = new long[j - i];
+            for (int k = i; k < j; k++) {
+                starts[k - i] = LaneBookingIndex.toMinutes(((Timestamp) rows.get(k)[1]).toLocalDateTime());
+                ends[k - i] = LaneBookingIndex.toMinutes(((Timestamp) rows.get(k)[2]).toLocalDateTime());
+            }
+            byLane.put(laneId, new long[][] {starts, ends});
+            i = j;
+        }
+        return byLane;
+    }
+
+    /**
+     * Sweeps the start and end events of one lane in time order and counts the minutes
+     * covered by at least one booking, clipped to [from, to) and to the daily opening
+     * window [open, close). Overlapping bookings are only counted once.
+     * @param starts booking starts in epoch minutes, sorted ascending
+     * @param ends booking ends in epoch minutes, in the same order as starts
+     */
+    static LaneUtilization sweep(long[] starts, long[] ends, int count, long from, long to, int open, int close) {
+        long[] sortedEnds = Arrays.copyOf(ends, count);
+        Arrays.sort(sortedEnds);
+        long[] byHour = new long[24];
+        long booked = 0;
+        int depth = 0;
+        int i = 0;
+        int j = 0;
+        long previous = Long.MIN_VALUE;
+        while (j < count) {
+            boolean isStart = i < count && starts[i] < sortedEnds[j];
+            long time = isStart ? starts[i] : sortedEnds[j];
+            if (depth > 0) {
+                booked += addOpenMinutes(Math.max(previous, from), Math.min(time, to), open, close, byHour);
+            }
+            if (isStart) {
+                depth++;
+                i++;
+            } else {
+                depth--;
+                j++;
+            }
+            previous = time;
+        }
+        return new LaneUtilization(count, booked, byHour);
+    }
+
+    /**
+     * Adds the minutes of [start, end) that fall inside the opening window to the
+     * per-hour totals. A closing time at or before the opening time closes on the next
+     * day, so that day's window runs past midnight (equal times mean open all day).
+     */
+    private static long addOpenMinutes(long start, long end, int open, int close, long[] byHour) {
+        long total = 0;
+        if (start >= end) {
+            return total;
+        }
+        int windowEnd = close > open ? close : close + MINUTES_PER_DAY;
+        // the previous day's window may still be open at the start
+        long day = Math.floorDiv(start, MINUTES_PER_DAY) - (windowEnd > MINUTES_PER_DAY ? 1 : 0);
+        while (day * MINUTES_PER_DAY + open < end) {
+            long dayStart = day * MINUTES_PER_DAY;
+            long lo = Math.max(start, dayStart + open);
+            long hi = Math.min(end, dayStart + windowEnd);
+            while (lo < hi) {
+                long hourStart = Math.floorDiv(lo, 60) * 60;
+                long next = Math.min(hi, hourStart + 60);
+                byHour[Math.floorMod(hourStart, MINUTES_PER_DAY) / 60] += next - lo;
+                total += next - lo;
+                lo = next;
+            }
+            day++;
+        }
+        return total;
+    }
+
+    private static Map<String, Object> toMap(Lane lane, LaneUtilization usage, LaneUtilization capacity) {
+        List<Map<String, Object>> hourly = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            if (capacity.bookedMinutesByHour()[hour] == 0) {
+                continue;
+            }
+            Map<String, Object> hourMap = new HashMap<>();
+            hourMap.put("hour", hour);
+            hourMap.put("bookedMinutes", usage.bookedMinutesByHour()[hour]);
+            hourMap.put("occupancy", percent(usage.bookedMinutesByHour()[hour], capacity.bookedMinutesByHour()[hour]));
+            hourly.add(hourMap);
+        }
+
+        Map<String, Object> laneMap = new HashMap<>();
+        laneMap.put("laneNumber", lane.getNumber());
+        laneMap.put("status", String.valueOf(lane.getStatus()));
+        laneMap.put("isActive", lane.getIsActive());
+        laneMap.put("bookingCount", usage.bookingCount());
+        laneMap.put("bookedMinutes", usage.bookedMinutes());
+        laneMap.put("openMinutes", capacity.bookedMinutes());
+        laneMap.put("utilization", percent(usage.bookedMinutes(), capacity.bookedMinutes()));
+        laneMap.put("hourlyOccupancy", hourly);
+        return laneMap;
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0.0 : Math.round(part * 1000.0 / whole) / 10.0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.LaneClass;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * Prices bookings from a rate table compiled out of the pricing settings. The table
+ * holds, per lane class, the running total of the hourly rate for every minute of a
+ * week, so a quote is two lookups and a subtraction however long the booking is and
+ * whichever peak, off-peak or weekend windows it crosses. Settings changes compile a
+ * new table and swap it in with a single write.
+ */
+@Service
+public class PricingEngine {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WEEK_MINUTES = 7 * MINUTES_PER_DAY;
+    // epoch minute 0 is a Thursday; shifting by three days puts Monday 00:00 at week minute 0
+    private static final long EPOCH_TO_MONDAY = 3L * MINUTES_PER_DAY;
+    private static final LaneClass[] LANE_CLASSES = LaneClass.values();
+
+    /**
+     * Compiled rules. Rates are in cents per hour; a prefix entry i is the sum of the
+     * rates of week minutes [0, i), so dividing a difference by 60 gives cents.
+     */
+    private record RateTable(long[][] lanePrefix, long[] extraPlayerPrefix, int includedPlayers) {
+    }
+
+    private volatile RateTable table = compile(SettingsService.DEFAULTS);
+
+    /**
+     * Compiles the pricing settings and swaps the new table in.
+     * @throws IllegalArgumentException if a pricing setting is missing or invalid
+     */
+    public void rebuild(Map<String, ?> settings) {
+        prepare(settings).run();
+    }
+
+    /**
+     * Compiles the pricing settings without installing them; running the returned
+     * action swaps the new table in.
+     * @throws IllegalArgumentException if a pricing setting is missing or invalid
+     */
+    public Runnable prepare(Map<String, ?> settings) {
+        RateTable compiled = compile(settings);
+        return () -> table = compiled;
+    }
+
+    public BigDecimal quote(LaneClass laneClass, LocalDateTime start, LocalDateTime end, int players) {
+        return BigDecimal.valueOf(quoteCents(laneClass, LaneBookingIndex.toMinutes(start), LaneBookingIndex.toMinutes(end), players), 2);
+    }
+
+    /**
+     * Price in cents of a booking between two epoch minutes. Allocates nothing.
+     */
+    public long quoteCents(LaneClass laneClass, long startMinute, long endMinute, int players) {
+        if (endMinute <= startMinute) {
+            return 0;
+        }
+        RateTable current = table;
+        long[] lanePrefix = current.lanePrefix()[(laneClass != null ? laneClass : LaneClass.STANDARD).ordinal()];
+        long rateMinutes = cumulative(lanePrefix, endMinute) - cumulative(lanePrefix, startMinute);
+        int extraPlayers = players - current.includedPlayers();
+        if (extraPlayers > 0) {
+            long[] extraPrefix = current.extraPlayerPrefix();
+            rateMinutes += extraPlayers * (cumulative(extraPrefix, endMinute) - cumulative(extraPrefix, startMinute));
+        }
+        return (rateMinutes + 30) / 60;
+    }
+
+    private static long cumulative(long[] prefix, long epochMinute) {
+        long minute = epochMinute + EPOCH_TO_MONDAY;
+        return Math.floorDiv(minute, WEEK_MINUTES) * prefix[WEEK_MINUTES] + prefix[(int) Math.floorMod(minute, WEEK_MINUTES)];
+    }
+
+    static RateTable compile(Map<String, ?> settings) {
+        BigDecimal lanePrice = decimal(settings, "lanePrice");
+        int peakStart = minuteOfDay(settings, "peakStart");
+        int peakEnd = minuteOfDay(settings, "peakEnd");
+        BigDecimal peak = decimal(settings, "peakMultiplier");
+        BigDecimal offPeak = decimal(settings, "offPeakMultiplier");
+        BigDecimal weekend = decimal(settings, "weekendMultiplier");
+        int includedPlayers = decimal(settings, "includedPlayers").intValueExact();
+        long extraPlayerRate = cents(decimal(settings, "extraPlayerPrice"));
+
+        long[][] lanePrefix = new long[LANE_CLASSES.length][];
+        for (LaneClass laneClass : LANE_CLASSES) {
+            BigDecimal classRate = lanePrice.multiply(decimal(settings, laneClass.name().toLowerCase() + "LaneMultiplier"));
+            // only four distinct rates per class: weekday/weekend x off-peak/peak
+            long[] rates = {
+                cents(classRate.multiply(offPeak)),
+                cents(classRate.multiply(peak)),
+                cents(classRate.multiply(offPeak).multiply(weekend)),
+                cents(classRate.multiply(peak).multiply(weekend))
+            };
+            long[] prefix = new long[WEEK_MINUTES + 1];
+            for (int minute = 0; minute < WEEK_MINUTES; minute++) {
+                int day = minute / MINUTES_PER_DAY;
+                int rateIndex = (day >= 5 ? 2 : 0) + (isPeak(minute % MINUTES_PER_DAY, peakStart, peakEnd) ? 1 : 0);
+                prefix[minute + 1] = prefix[minute] + rates[rateIndex];
+            }
+            lanePrefix[laneClass.ordinal()] = prefix;
+        }
+
+        long[] extraPrefix = new long[WEEK_MINUTES + 1];
+        for (int minute = 0; minute < WEEK_MINUTES; minute++) {
+            extraPrefix[minute + 1] = extraPrefix[minute] + extraPlayerRate;
+        }
+        return new RateTable(lanePrefix, extraPrefix, includedPlayers);
+    }
+
+    private static boolean isPeak(int minuteOfDay, int peakStart, int peakEnd) {
+        if (peakStart <= peakEnd) {
+            return minuteOfDay >= peakStart && minuteOfDay < peakEnd;
+        }
+        // window crossing midnight
+        return minuteOfDay >= peakStart || minuteOfDay < peakEnd;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal decimal(Map<String, ?> settings, String key) {
+        Object value = settings.get(key);
+        try {
+            BigDecimal result = new BigDecimal(String.valueOf(value));
+            if (result.signum() < 0) {
+                throw new IllegalArgumentException(key + " must not be negative");
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+        }
+    }
+
+    private static int minuteOfDay(Map<String, ?> settings, String key) {
+        Object value = settings.get(key);
+        try {
+            return LocalTime.parse(String.valueOf(value)).toSecondOfDay() / 60;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+        }
+    }
+}
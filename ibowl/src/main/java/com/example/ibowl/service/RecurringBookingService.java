@@ -0,0 +1,224 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.dto.request.RecurringBookingRequest;
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.exception.BookingConflictException;
+import com.example.ibowl.exception.ResourceNotFoundException;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Creates a series of bookings (e.g. a league night every week on several lanes)
+ * in one call. All occurrences are checked against the lane index in one sorted
+ * merge per lane, then the free ones are inserted in a single transaction while
+ * the locks of every lane involved are held.
+ */
+@Service
+public class RecurringBookingService {
+    public static final int MAX_OCCURRENCES = 1000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LaneRepository laneRepository;
+
+    @Autowired
+    private LaneBookingIndex laneBookingIndex;
+
+    @Autowired
+    private LaneLocks laneLocks;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private BookingHoldService bookingHoldService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Expands the request into dated occurrences and books every one that is free.
+     * @return the created booking ids and the occurrences that were skipped because of a conflict
+     * @throws BookingConflictException if skipConflicts is false and any occurrence conflicts
+     * @throws ResourceNotFoundException if the user or one of the lanes does not exist
+     * @throws IllegalArgumentException if the series is empty, too long or has an unknown status
+     */
+    public Map<String, Object> createSeries(RecurringBookingRequest request) {
+        int occurrences = request.getOccurrences();
+        int intervalWeeks = request.getIntervalWeeks() != null ? request.getIntervalWeeks() : 1;
+        List<Long> laneIds = new ArrayList<>(new LinkedHashSet<>(request.getLaneIds()));
+        if (occurrences < 1 || intervalWeeks < 1 || laneIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one lane and one occurrence are required");
+        }
+        if ((long) occurrences * laneIds.size() > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("A series can contain at most " + MAX_OCCURRENCES + " bookings");
+        }
+        BookingStatus status = parseStatus(request.getStatus());
+        User user = userRepository.findById(request.getUserId())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        List<Lane> lanes = laneRepository.findAllById(laneIds);
+        if (lanes.size() != laneIds.size()) {
+            throw new ResourceNotFoundException("Lane not found");
+        }
+
+        // Occurrence k of every lane starts at starts[k]; the dates only ever increase
+        long[] starts = new long[occurrences];
+        long[] ends = new long[occurrences];
+        LocalDateTime[] startTimes = new LocalDateTime[occurrences];
+        LocalDateTime[] endTimes = new LocalDateTime[occurrences];
+        for (int k = 0; k < occurrences; k++) {
+            LocalDate day = request.getFirstDate().plusWeeks((long) k * intervalWeeks);
+            startTimes[k] = day.atTime(request.getStartTime());
+            endTimes[k] = request.getEndTime().isAfter(request.getStartTime())
+                ? day.atTime(request.getEndTime())
+                : day.plusDays(1).atTime(request.getEndTime());
+            starts[k] = LaneBookingIndex.toMinutes(startTimes[k]);
+            ends[k] = LaneBookingIndex.toMinutes(endTimes[k]);
+        }
+
+        List<Map<String, Object>> conflicts = new ArrayList<>();
+        List<Booking> created = new ArrayList<>();
+        List<Lock> locks = laneLocks.forLanes(laneIds);
+        locks.forEach(Lock::lock);
+        try {
+            List<Booking> toInsert = new ArrayList<>();
+            for (Lane lane : lanes) {
+                boolean[] conflicting = findConflicts(lane.getId(), starts, ends);
+                for (int k = 0; k < occurrences; k++) {
+                    if (conflicting[k]) {
+                        conflicts.add(conflictToMap(lane, startTimes[k], endTimes[k]));
+                    } else {
+                        toInsert.add(newBooking(user, lane, startTimes[k], endTimes[k], request.getPlayers(), status));
+                    }
+                }
+            }
+            if (!conflicts.isEmpty() && !Boolean.TRUE.equals(request.getSkipConflicts())) {
+                throw new BookingConflictException(conflicts.size() + " occurrences of the series conflict with existing bookings");
+            }
+            if (!toInsert.isEmpty()) {
+                try {
+                    created = transactionTemplate.execute(tx -> {
+                        List<Booking> inserted = bookingRepository.saveAll(toInsert);
+                        for (Booking booking : inserted) {
+                            bookingRollupService.applyChange(null, BookingSnapshot.of(booking));
+                        }
+                        return inserted;
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    if (e.getMessage() != null && e.getMessage().contains(BookingService.OVERLAP_CONSTRAINT)) {
+                        throw new BookingConflictException("The series conflicts with a booking made concurrently");
+                    }
+                    throw e;
+                }
+                created.forEach(laneBookingIndex::index);
+            }
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+
+        List<Long> bookingIds = new ArrayList<>(created.size());
+        for (Booking booking : created) {
+            bookingIds.add(booking.getId());
+            eventPublisher.publishEvent(new BookingChangedEvent(null, BookingSnapshot.of(booking)));
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("created", bookingIds.size());
+        result.put("bookingIds", bookingIds);
+        result.put("conflicts", conflicts);
+        return result;
+    }
+
+    /**
+     * Marks the occurrences that overlap an existing booking on the lane, in one merge
+     * of the two start-ordered lists. A booking is passed over only once it ends before
+     * the current occurrence, and every later occurrence starts later still.
+     */
+    boolean[] findConflicts(Long laneId, long[] starts, long[] ends) {
+        int count = starts.length;
+        List<long[]> existing = new ArrayList<>();
+        laneBookingIndex.forEachInterval(laneId, starts[0], ends[count - 1],
+            (start, end) -> existing.add(new long[] {start, end}));
+        boolean[] conflicting = new boolean[count];
+        int i = 0;
+        int k = 0;
+        while (i < existing.size() && k < count) {
+            long[] booked = existing.get(i);
+            if (booked[1] <= starts[k]) {
+                i++;
+            } else if (ends[k] <= booked[0]) {
+                k++;
+            } else {
+                conflicting[k] = true;
+                k++;
+            }
+        }
+        return conflicting;
+    }
+
+    private static BookingStatus parseStatus(String status) {
+        if (status == null) {
+            return BookingStatus.CONFIRMED;
+        }
+        try {
+            return BookingStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown booking status: " + status);
+        }
+    }
+
+    private Booking newBooking(User user, Lane lane, LocalDateTime start, LocalDateTime end, int players, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setLane(lane);
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setPlayers(players);
+        booking.setTotalPrice(pricingEngine.quote(lane.getLaneClass(), start, end, players));
+        booking.setStatus(status);
+        if (status == BookingStatus.PENDING) {
+            booking.setHoldExpiresAt(bookingHoldService.newHoldExpiry());
+        }
+        return booking;
+    }
+
+    private static Map<String, Object> conflictToMap(Lane lane, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> conflict = new HashMap<>();
+        conflict.put("laneId", lane.getId());
+        conflict.put("laneNumber", lane.getNumber());
+        conflict.put("date", start.toLocalDate().toString());
+        conflict.put("startTime", start);
+        conflict.put("endTime", end);
+        return conflict;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.ibowl.service;
+
+import java.util.Arrays;
+
+/**
+ * Frame-by-frame score sheet of one game. Each player owns a slot of 21 bytes
+ * holding their rolls in order ({@code -1} where nothing was rolled yet), which is
+ * also the persisted form. Running totals are kept incrementally: a roll resolves
+ * at most the frames still waiting for their strike or spare bonus, so recording a
+ * roll is constant time and allocates nothing. Not thread-safe.
+ */
+public final class ScoreCard {
+    public static final int MAX_PLAYERS = 6;
+    public static final int FRAMES = 10;
+    public static final int MAX_ROLLS = 21;
+    private static final int PINS = 10;
+
+    private final int players;
+    private final byte[] rolls;
+    private final byte[] rollCount;
+    private final byte[] frame;
+    private final byte[] ball;
+    private final byte[] standing;
+    private final byte[] scoredFrames;
+    // per player and frame: index of the frame's first roll, and the cumulative total once resolved
+    private final byte[] frameStart;
+    private final short[] totals;
+    private int finishedPlayers;
+
+    public ScoreCard(int players) {
+        if (players < 1 || players > MAX_PLAYERS) {
+            throw new IllegalArgumentException("A game has between 1 and " + MAX_PLAYERS + " players");
+        }
+        this.players = players;
+        this.rolls = new byte[players * MAX_ROLLS];
+        this.rollCount = new byte[players];
+        this.frame = new byte[players];
+        this.ball = new byte[players];
+        this.standing = new byte[players];
+        this.scoredFrames = new byte[players];
+        this.frameStart = new byte[players * FRAMES];
+        this.totals = new short[players * FRAMES];
+        reset();
+    }
+
+    /**
+     * Rebuilds a card from its persisted rolls, validating every roll on the way.
+     */
+    public static ScoreCard fromBytes(byte[] data) {
+        if (data == null || data.length == 0 || data.length % MAX_ROLLS != 0 || data.length > MAX_PLAYERS * MAX_ROLLS) {
+            throw new IllegalArgumentException("Invalid score card data");
+        }
+        ScoreCard card = new ScoreCard(data.length / MAX_ROLLS);
+        for (int player = 0; player < card.players; player++) {
+            for (int i = 0; i < MAX_ROLLS && data[player * MAX_ROLLS + i] >= 0; i++) {
+                card.roll(player, data[player * MAX_ROLLS + i]);
+            }
+        }
+        return card;
+    }
+
+    public byte[] toBytes() {
+        return Arrays.copyOf(rolls, rolls.length);
+    }
+
+    public void reset() {
+        Arrays.fill(rolls, (byte) -1);
+        Arrays.fill(rollCount, (byte) 0);
+        Arrays.fill(frame, (byte) 0);
+        Arrays.fill(ball, (byte) 0);
+        Arrays.fill(standing, (byte) PINS);
+        Arrays.fill(scoredFrames, (byte) 0);
+        Arrays.fill(frameStart, (byte) 0);
+        Arrays.fill(totals, (short) 0);
+        finishedPlayers = 0;
+    }
+
+    /**
+     * Records the pins knocked down by the player's next ball and returns their total
+     * over the frames resolved so far.
+     * @param player zero-based player index
+     */
+    public int roll(int player, int pins) {
+        checkPlayer(player);
+        int f = frame[player];
+        if (f == FRAMES) {
+            throw new IllegalArgumentException("Player " + (player + 1) + " has finished the game");
+        }
+        if (pins < 0 || pins > standing[player]) {
+            throw new IllegalArgumentException("Only " + standing[player] + " pins are standing");
+        }
+        int b = ball[player];
+        int n = rollCount[player];
+        if (b == 0) {
+            frameStart[player * FRAMES + f] = (byte) n;
+        }
+        rolls[player * MAX_ROLLS + n] = (byte) pins;
+        rollCount[player] = (byte) (n + 1);
+        int left = standing[player] - pins;
+
+        if (f < FRAMES - 1) {
+            if (left == 0 || b == 1) {
+                nextFrame(player);
+            } else {
+                ball[player] = 1;
+                standing[player] = (byte) left;
+            }
+        } else if (b == 0 || (b == 1 && (rolls[player * MAX_ROLLS + n - 1] == PINS || left == 0))) {
+            // the tenth frame re-racks after a strike or spare and a strike or spare earns a third ball
+            ball[player] = (byte) (b + 1);
+            standing[player] = (byte) (left == 0 ? PINS : left);
+        } else {
+            frame[player] = FRAMES;
+            finishedPlayers++;
+        }
+        return resolve(player);
+    }
+
+    private void nextFrame(int player) {
+        frame[player]++;
+        ball[player] = 0;
+        standing[player] = PINS;
+    }
+
+    /**
+     * Scores, in order, the frames whose bonus balls have now been rolled. Only the
+     * last two or three frames can be waiting, so the loop is bounded.
+     */
+    private int resolve(int player) {
+        int base = player * MAX_ROLLS;
+        int count = rollCount[player];
+        int k = scoredFrames[player];
+        while (k < FRAMES && isStarted(player, k)) {
+            int s = frameStart[player * FRAMES + k];
+            int first = rolls[base + s];
+            if (s + 1 >= count) {
+                break;
+            }
+            int second = rolls[base + s + 1];
+            int value;
+            if (first == PINS || first + second == PINS) {
+                if (s + 2 >= count) {
+                    break;
+                }
+                value = first == PINS ? PINS + second + rolls[base + s + 2] : PINS + rolls[base + s + 2];
+            } else {
+                value = first + second;
+            }
+            totals[player * FRAMES + k] = (short) ((k == 0 ? 0 : totals[player * FRAMES + k - 1]) + value);
+            k++;
+        }
+        scoredFrames[player] = (byte) k;
+        return k == 0 ? 0 : totals[player * FRAMES + k - 1];
+    }
+
+    private boolean isStarted(int player, int k) {
+        return k < frame[player] || (k == frame[player] && ball[player] > 0);
+    }
+
+    public int players() {
+        return players;
+    }
+
+    /**
+     * Total over the frames resolved so far; the final score once the player has finished.
+     */
+    public int score(int player) {
+        checkPlayer(player);
+        int k = scoredFrames[player];
+        return k == 0 ? 0 : totals[player * FRAMES + k - 1];
+    }
+
+    /**
+     * Cumulative total up to and including {@code frame}, or -1 while that frame still
+     * waits for rolls or bonus balls.
+     */
+    public int frameTotal(int player, int frame) {
+        checkPlayer(player);
+        return frame < scoredFrames[player] ? totals[player * FRAMES + frame] : -1;
+    }
+
+    /**
+     * Zero-based frame the player is bowling, {@link #FRAMES} once they have finished.
+     */
+    public int currentFrame(int player) {
+        checkPlayer(player);
+        return frame[player];
+    }
+
+    public int pinsStanding(int player) {
+        checkPlayer(player);
+        return frame[player] == FRAMES ? 0 : standing[player];
+    }
+
+    public int rollCount(int player) {
+        checkPlayer(player);
+        return rollCount[player];
+    }
+
+    public int pins(int player, int roll) {
+        checkPlayer(player);
+        if (roll < 0 || roll >= rollCount[player]) {
+            throw new IllegalArgumentException("Roll " + roll + " has not been bowled");
+        }
+        return rolls[player * MAX_ROLLS + roll];
+    }
+
+    public boolean isFinished(int player) {
+        checkPlayer(player);
+        return frame[player] == FRAMES;
+    }
+
+    public boolean isComplete() {
+        return finishedPlayers == players;
+    }
+
+    private void checkPlayer(int player) {
+        if (player < 0 || player >= players) {
+            throw new IllegalArgumentException("Unknown player " + (player + 1));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.entity.AppSetting;
+import com.example.ibowl.repository.AppSettingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Business settings stored in app_settings, falling back to the defaults below.
+ * Pricing settings are compiled into the {@link PricingEngine} rate table whenever
+ * they are loaded or changed.
+ */
+@Service
+public class SettingsService {
+    public static final Map<String, Object> DEFAULTS;
+
+    static {
+        Map<String, Object> defaults = new LinkedHashMap<>();
+        defaults.put("businessName", "iBowl Bowling Center");
+        defaults.put("businessHours", "10:00 AM - 10:00 PM");
+        defaults.put("maxPlayers", 6);
+        defaults.put("bookingAdvanceDays", 30);
+        defaults.put("autoConfirmBookings", true);
+        defaults.put("sendNotifications", true);
+        // Pricing: lanePrice is per lane and hour, scaled by the window and lane class multipliers
+        defaults.put("lanePrice", "25.00");
+        defaults.put("peakStart", "17:00");
+        defaults.put("peakEnd", "22:00");
+        defaults.put("peakMultiplier", "1.20");
+        defaults.put("offPeakMultiplier", "1.00");
+        defaults.put("weekendMultiplier", "1.25");
+        defaults.put("includedPlayers", 4);
+        defaults.put("extraPlayerPrice", "3.00");
+        defaults.put("standardLaneMultiplier", "1.00");
+        defaults.put("premiumLaneMultiplier", "1.50");
+        DEFAULTS = Collections.unmodifiableMap(defaults);
+    }
+
+    @Autowired
+    private AppSettingRepository appSettingRepository;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile Map<String, Object> settings = DEFAULTS;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public synchronized void load() {
+        Map<String, Object> merged = new LinkedHashMap<>(DEFAULTS);
+        for (AppSetting setting : appSettingRepository.findAll()) {
+            if (DEFAULTS.containsKey(setting.getKey())) {
+                merged.put(setting.getKey(), convert(setting.getKey(), setting.getValue()));
+            }
+        }
+        pricingEngine.rebuild(merged);
+        settings = Collections.unmodifiableMap(merged);
+    }
+
+    public Map<String, Object> getSettings() {
+        return new HashMap<>(settings);
+    }
+
+    /**
+     * Stores the known settings among {@code changes}; unknown keys are ignored.
+     * The rate table is compiled before anything is saved, so invalid pricing settings
+     * are rejected. Once the transaction commits, settings and rates are reloaded from
+     * the table rather than taken from this call, so concurrent updates cannot drop each
+     * other's changes and prices never run ahead of the stored settings.
+     * @throws IllegalArgumentException if a value cannot be used
+     */
+    @Transactional
+    public Map<String, Object> updateSettings(Map<String, Object> changes) {
+        Map<String, Object> merged = new LinkedHashMap<>(settings);
+        List<AppSetting> rows = new ArrayList<>();
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            if (!DEFAULTS.containsKey(change.getKey()) || change.getValue() == null) {
+                continue;
+            }
+            Object value = convert(change.getKey(), change.getValue().toString());
+            merged.put(change.getKey(), value);
+            AppSetting row = new AppSetting();
+            row.setKey(change.getKey());
+            row.setValue(value.toString());
+            rows.add(row);
+        }
+        pricingEngine.prepare(merged);
+        appSettingRepository.saveAll(rows);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+        return new HashMap<>(merged);
+    }
+
+    // Read in a transaction of its own: the committed one's persistence context may hold
+    // rows that a concurrent update has since overwritten
+    private void reload() {
+        TransactionTemplate read = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        read.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        read.setReadOnly(true);
+        read.executeWithoutResult(status -> load());
+    }
+
+    private static Object convert(String key, String value) {
+        Object defaultValue = DEFAULTS.get(key);
+        if (defaultValue instanceof Integer) {
+            return Integer.valueOf(value.trim());
+        }
+        if (defaultValue instanceof Boolean) {
+            return Boolean.valueOf(value.trim());
+        }
+        return value;
+    }
+}
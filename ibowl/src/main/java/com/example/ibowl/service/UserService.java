@@ -1,15 +1,22 @@
 package com.example.ibowl.service;
 
+import com.example.ibowl.dto.request.KeysetCursor;
+import com.example.ibowl.dto.response.KeysetPage;
 import com.example.ibowl.entity.User;
+import com.example.ibowl.event.UserChangedEvent;
 import com.example.ibowl.entity.Role;
+import com.example.ibowl.repository.RefreshTokenRepository;
 import com.example.ibowl.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.HashMap;
 
@@ -18,9 +25,15 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Optional<User> findByEmail(String email) {
         System.out.println("UserService: findByEmail called with email: " + email);
         Optional<User> user = userRepository.findByEmailIgnoreCase(email);
@@ -37,7 +50,23 @@ public class UserService {
     }
 
     public User save(User user) {
-        return userRepository.save(user);
+        String previousEmail = null;
+        if (user.getId() != null) {
+            previousEmail = userRepository.findById(user.getId()).map(User::getEmail).orElse(null);
+            // Read the stored values with a scalar query, the entity may be the managed instance being changed
+            List<Object[]> stored = userRepository.findRoleAndPassword(user.getId());
+            if (!stored.isEmpty() && (stored.get(0)[0] != user.getRole() || !Objects.equals(stored.get(0)[1], user.getPassword()))) {
+                bumpTokenVersion(user);
+            }
+        }
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), previousEmail != null ? previousEmail : saved.getEmail(),
+            saved.getTokenVersion()));
+        return saved;
+    }
+
+    private static void bumpTokenVersion(User user) {
+        user.setTokenVersion((user.getTokenVersion() != null ? user.getTokenVersion() : 0) + 1);
     }
 
     // Admin methods
@@ -49,6 +78,31 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    /**
+     * Returns the users created after {@code cursor} in (createdAt, id) order, optionally of one role.
+     * @throws IllegalArgumentException if the cursor or role cannot be parsed
+     */
+    public KeysetPage<User> findPage(String cursor, int limit, String role) {
+        int size = Math.max(1, Math.min(limit, BookingService.MAX_PAGE_SIZE));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Role userRole = null;
+        if (role != null) {
+            try {
+                userRole = Role.valueOf(role);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown role: " + role);
+            }
+        }
+
+        List<User> rows = userRepository.findPageAfter(after.time(), after.id(), userRole, PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<User> page = rows.subList(0, size);
+        User last = page.get(size - 1);
+        return new KeysetPage<>(page, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
     public User createUserFromAdmin(Map<String, Object> userData) {
         String email = (String) userData.get("email");
         String password = (String) userData.get("password");
@@ -78,24 +132,36 @@ public class UserService {
         user.setPhone((String) userData.get("phone"));
         user.setRole(Role.valueOf(roleStr));
         user.setLoyaltyPoints(0);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), saved.getEmail(), saved.getTokenVersion()));
+        return saved;
     }
 
     public User updateUserFromAdmin(Long userId, Map<String, Object> userData) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousEmail = user.getEmail();
         
         user.setEmail((String) userData.get("email"));
         user.setFirstName((String) userData.get("firstName"));
         user.setLastName((String) userData.get("lastName"));
         user.setPhone((String) userData.get("phone"));
-        user.setRole(Role.valueOf((String) userData.get("role")));
+        Role role = Role.valueOf((String) userData.get("role"));
+        if (role != user.getRole()) {
+            bumpTokenVersion(user);
+        }
+        user.setRole(role);
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), previousEmail, saved.getTokenVersion()));
+        return saved;
     }
 
     public void deleteUser(Long userId) {
+        String email = userRepository.findById(userId).map(User::getEmail).orElse(null);
+        refreshTokenRepository.deleteByUserId(userId);
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, email, null));
     }
 
     public User toggleUserStatus(Long userId, Boolean isActive) {
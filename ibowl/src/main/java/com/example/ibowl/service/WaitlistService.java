@@ -0,0 +1,422 @@
+package com.example.ibowl.service;
+
+import com.example.ibowl.dto.request.WaitlistRequest;
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.entity.WaitlistEntry;
+import com.example.ibowl.entity.WaitlistStatus;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.exception.BookingConflictException;
+import com.example.ibowl.exception.ResourceNotFoundException;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.repository.UserRepository;
+import com.example.ibowl.repository.WaitlistEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Waitlist for fully booked slots. Waiters are kept in memory in one priority queue
+ * per (lane, start, end) slot, where a null lane stands for any lane, ordered by
+ * loyalty tier and then request time. When an active booking is cancelled or deleted,
+ * the best waiter whose slot fits in the freed time on that lane gets an offer: a
+ * PENDING hold booking that they confirm like any other, or that lapses with the hold
+ * and passes the slot on to the next waiter. Slots are indexed by lane and start, so a
+ * release only looks at the slots of its own lane and of any lane that start within the
+ * longest slot still waiting in that index before the freed end. Each pick peeks every
+ * such queue head and checks its slot against the {@link LaneBookingIndex}, so it costs
+ * O(k log n) for k such slots, not a single logarithmic lookup. Long waits widen the
+ * window only while they are queued.
+ * Offers are made after the change has committed, on a single background thread.
+ */
+@Service
+public class WaitlistService {
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+    // guards against spinning when offers keep losing races for the same slot
+    public static final int MAX_OFFERS_PER_RELEASE = 64;
+    // index key of the slots open to any lane
+    private static final Long ANY_LANE = -1L;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LaneRepository laneRepository;
+
+    @Autowired
+    private LaneBookingIndex laneBookingIndex;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    private record SlotKey(Long laneId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record Waiter(Long entryId, Long userId, int tier, LocalDateTime requestedAt,
+                          int players, SlotKey slot) {
+    }
+
+    /**
+     * Slots of one lane index by start, and how many waiters are queued per slot length,
+     * so a release can tell how far back a slot overlapping it may start.
+     */
+    private static final class SlotIndex {
+        final ConcurrentSkipListMap<LocalDateTime, Set<SlotKey>> byStart = new ConcurrentSkipListMap<>();
+        private final TreeMap<Long, Integer> waitersByMinutes = new TreeMap<>();
+
+        synchronized void addWaiters(long minutes, int count) {
+            waitersByMinutes.merge(minutes, count, Integer::sum);
+        }
+
+        synchronized void removeWaiters(long minutes, int count) {
+            waitersByMinutes.computeIfPresent(minutes, (length, waiting) -> waiting > count ? waiting - count : null);
+        }
+
+        synchronized long maxSlotMinutes() {
+            return waitersByMinutes.isEmpty() ? 0 : waitersByMinutes.lastKey();
+        }
+    }
+
+    private static final Comparator<Waiter> PRIORITY = Comparator.comparingInt(Waiter::tier).reversed()
+        .thenComparing(Waiter::requestedAt)
+        .thenComparing(Waiter::entryId);
+
+    // each queue is guarded by its own monitor
+    private final ConcurrentHashMap<SlotKey, PriorityQueue<Waiter>> queues = new ConcurrentHashMap<>();
+    // lane (or ANY_LANE) -> its slots
+    private final ConcurrentHashMap<Long, SlotIndex> slotsByLane = new ConcurrentHashMap<>();
+    // offered booking id -> waitlist entry id
+    private final ConcurrentHashMap<Long, Long> offers = new ConcurrentHashMap<>();
+    // one thread, so releases are offered in the order they happened
+    private final ExecutorService offerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-offers");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        offerExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(3)
+    public void load() {
+        List<WaitlistEntry> entries = waitlistRepository.findWithUserByStatusIn(
+            EnumSet.of(WaitlistStatus.WAITING, WaitlistStatus.OFFERED));
+        for (WaitlistEntry entry : entries) {
+            if (entry.getStatus() == WaitlistStatus.OFFERED && entry.getOfferedBookingId() != null) {
+                offers.put(entry.getOfferedBookingId(), entry.getId());
+            } else if (entry.getStatus() == WaitlistStatus.WAITING) {
+                enqueue(toWaiter(entry));
+            }
+        }
+        logger.info("Loaded {} waitlist entries", entries.size());
+    }
+
+    public WaitlistEntry join(WaitlistRequest request) {
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (!request.getStartTime().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot wait for a slot in the past");
+        }
+        User user = userRepository.findById(request.getUserId())
+            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (request.getLaneId() != null && !laneRepository.existsById(request.getLaneId())) {
+            throw new ResourceNotFoundException("Lane not found");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setUser(user);
+        entry.setLaneId(request.getLaneId());
+        entry.setStartTime(request.getStartTime());
+        entry.setEndTime(request.getEndTime());
+        entry.setPlayers(request.getPlayers());
+        entry.setRequestedAt(LocalDateTime.now());
+        entry.setStatus(WaitlistStatus.WAITING);
+        WaitlistEntry saved = waitlistRepository.save(entry);
+        enqueue(toWaiter(saved));
+        return saved;
+    }
+
+    public void leave(Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+            .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found"));
+        // conditional, so an offer being made right now either wins or sees the withdrawal
+        if (entry.getStatus() != WaitlistStatus.WAITING
+                || waitlistRepository.updateStatus(entryId, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED) == 0) {
+            throw new IllegalArgumentException("Only waiting entries can be withdrawn");
+        }
+        SlotKey key = new SlotKey(entry.getLaneId(), entry.getStartTime(), entry.getEndTime());
+        PriorityQueue<Waiter> queue = queues.get(key);
+        if (queue != null) {
+            boolean removed;
+            synchronized (queue) {
+                removed = queue.removeIf(waiter -> waiter.entryId().equals(entryId));
+            }
+            if (removed) {
+                slotIndex(key).removeWaiters(minutes(key), 1);
+            }
+        }
+    }
+
+    public List<WaitlistEntry> findByUser(Long userId) {
+        return waitlistRepository.findByUserIdOrderByRequestedAtDesc(userId);
+    }
+
+    /**
+     * Hands the change to the offer thread once it has committed, so the request that
+     * freed the slot neither waits for the offers nor has them inside its transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        offerExecutor.execute(() -> {
+            try {
+                handleBookingChanged(event);
+            } catch (RuntimeException e) {
+                logger.warn("Waitlist offers failed after booking change: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private void handleBookingChanged(BookingChangedEvent event) {
+        BookingSnapshot before = event.before();
+        BookingSnapshot after = event.after();
+        Long bookingId = after != null ? after.id() : before.id();
+        Long entryId = offers.get(bookingId);
+        if (entryId != null) {
+            settleOffer(bookingId, entryId, after);
+        }
+        if (frees(before, after)) {
+            offerFreedSlot(before.laneId(), before.startTime(), before.endTime());
+        }
+    }
+
+    /**
+     * Drops waiters whose slot has started; they can no longer be served.
+     */
+    @Scheduled(cron = "${ibowl.waitlist.purge-cron:0 0 * * * *}")
+    public void purgePastSlots() {
+        LocalDateTime now = LocalDateTime.now();
+        for (SlotIndex index : slotsByLane.values()) {
+            Map<LocalDateTime, Set<SlotKey>> past = index.byStart.headMap(now);
+            for (Set<SlotKey> keys : past.values()) {
+                for (SlotKey key : keys) {
+                    PriorityQueue<Waiter> queue = queues.remove(key);
+                    if (queue != null) {
+                        synchronized (queue) {
+                            index.removeWaiters(minutes(key), queue.size());
+                        }
+                    }
+                }
+            }
+            past.clear();
+        }
+        int expired = waitlistRepository.expireWaitingBefore(now);
+        if (expired > 0) {
+            logger.info("Expired {} waitlist entries for past slots", expired);
+        }
+    }
+
+    private void settleOffer(Long bookingId, Long entryId, BookingSnapshot after) {
+        if (after != null && (after.status() == BookingStatus.CONFIRMED || after.status() == BookingStatus.COMPLETED)) {
+            offers.remove(bookingId);
+            waitlistRepository.updateStatus(entryId, WaitlistStatus.OFFERED, WaitlistStatus.ACCEPTED);
+        } else if (after == null || after.status() == BookingStatus.CANCELLED) {
+            offers.remove(bookingId);
+            waitlistRepository.updateStatus(entryId, WaitlistStatus.OFFERED, WaitlistStatus.EXPIRED);
+        }
+    }
+
+    /**
+     * True when the change takes an active booking off its lane and time.
+     */
+    private static boolean frees(BookingSnapshot before, BookingSnapshot after) {
+        if (before == null || before.laneId() == null || !LaneBookingIndex.isActive(before.status())) {
+            return false;
+        }
+        return after == null
+            || !LaneBookingIndex.isActive(after.status())
+            || !Objects.equals(before.laneId(), after.laneId())
+            || !Objects.equals(before.startTime(), after.startTime())
+            || !Objects.equals(before.endTime(), after.endTime());
+    }
+
+    /**
+     * Offers freed time on a lane to the best waiters whose slot now fits, until
+     * no waiting slot fits any more. Only slots on this lane or on any lane that start
+     * within the longest waiting slot of their index before the freed end can overlap it;
+     * each pick compares all their queue heads and polls one.
+     */
+    public void offerFreedSlot(Long laneId, LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(LocalDateTime.now())) {
+            return;
+        }
+        for (int attempt = 0; attempt < MAX_OFFERS_PER_RELEASE; attempt++) {
+            Candidate best = bestFitting(slotsByLane.get(laneId), laneId, start, end, null);
+            best = bestFitting(slotsByLane.get(ANY_LANE), laneId, start, end, best);
+            if (best == null) {
+                return;
+            }
+            PriorityQueue<Waiter> bestQueue = best.queue();
+            synchronized (bestQueue) {
+                // another release may have served this waiter in the meantime
+                if (bestQueue.peek() != best.waiter()) {
+                    continue;
+                }
+                bestQueue.poll();
+            }
+            slotIndex(best.waiter().slot()).removeWaiters(minutes(best.waiter().slot()), 1);
+            if (!offer(best.waiter(), laneId)) {
+                enqueue(best.waiter());
+            }
+        }
+    }
+
+    private record Candidate(Waiter waiter, PriorityQueue<Waiter> queue) {
+    }
+
+    /**
+     * Best queue head among the slots of one lane index that fit the freed time, or
+     * {@code best} when none beats it.
+     */
+    private Candidate bestFitting(SlotIndex index, Long laneId, LocalDateTime start, LocalDateTime end,
+                                  Candidate best) {
+        if (index == null) {
+            return best;
+        }
+        LocalDateTime earliest = start.minusMinutes(index.maxSlotMinutes());
+        for (Set<SlotKey> keys : index.byStart.subMap(earliest, true, end, false).values()) {
+            for (SlotKey key : keys) {
+                if (!fits(key, laneId, start, end)) {
+                    continue;
+                }
+                PriorityQueue<Waiter> queue = queues.get(key);
+                if (queue == null) {
+                    continue;
+                }
+                Waiter head;
+                synchronized (queue) {
+                    head = queue.peek();
+                }
+                if (head != null && (best == null || PRIORITY.compare(head, best.waiter()) < 0)) {
+                    best = new Candidate(head, queue);
+                }
+            }
+        }
+        return best;
+    }
+
+    private boolean fits(SlotKey key, Long laneId, LocalDateTime start, LocalDateTime end) {
+        return (key.laneId() == null || key.laneId().equals(laneId))
+            && key.start().isBefore(end) && key.end().isAfter(start)
+            && !laneBookingIndex.hasConflict(laneId, key.start(), key.end(), null);
+    }
+
+    private boolean offer(Waiter waiter, Long laneId) {
+        User user = userRepository.findById(waiter.userId()).orElse(null);
+        Lane lane = laneRepository.findById(laneId).orElse(null);
+        if (user == null || lane == null) {
+            waitlistRepository.updateStatus(waiter.entryId(), WaitlistStatus.WAITING, WaitlistStatus.EXPIRED);
+            return true;
+        }
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setLane(lane);
+        booking.setStartTime(waiter.slot().start());
+        booking.setEndTime(waiter.slot().end());
+        booking.setPlayers(waiter.players());
+        booking.setTotalPrice(pricingEngine.quote(lane.getLaneClass(), booking.getStartTime(), booking.getEndTime(), waiter.players()));
+        booking.setStatus(BookingStatus.PENDING);
+        Booking saved;
+        try {
+            saved = bookingService.save(booking);
+        } catch (BookingConflictException e) {
+            return false;
+        }
+        offers.put(saved.getId(), waiter.entryId());
+        if (waitlistRepository.markOffered(waiter.entryId(), saved.getId(), saved.getTotalPrice(), LocalDateTime.now()) == 0) {
+            // withdrawn while the hold was being made; release it again, which offers it on
+            offers.remove(saved.getId());
+            bookingService.updateBookingStatus(saved.getId(), BookingStatus.CANCELLED.name());
+            logger.info("Waitlist entry {} was withdrawn, cancelled its hold {}", waiter.entryId(), saved.getId());
+            return true;
+        }
+        logger.info("Offered lane {} to waitlist entry {} as booking {}", laneId, waiter.entryId(), saved.getId());
+        return true;
+    }
+
+    private void enqueue(Waiter waiter) {
+        SlotKey key = waiter.slot();
+        SlotIndex index = slotIndex(key);
+        // counted before the waiter is queued, so a release never looks back less far than it must
+        index.addWaiters(minutes(key), 1);
+        PriorityQueue<Waiter> queue = queues.computeIfAbsent(key, k -> {
+            index.byStart.computeIfAbsent(k.start(), s -> ConcurrentHashMap.newKeySet()).add(k);
+            return new PriorityQueue<>(PRIORITY);
+        });
+        synchronized (queue) {
+            queue.add(waiter);
+        }
+    }
+
+    private SlotIndex slotIndex(SlotKey key) {
+        return slotsByLane.computeIfAbsent(key.laneId() != null ? key.laneId() : ANY_LANE, lane -> new SlotIndex());
+    }
+
+    private static long minutes(SlotKey key) {
+        return Duration.between(key.start(), key.end()).toMinutes();
+    }
+
+    private static Waiter toWaiter(WaitlistEntry entry) {
+        return new Waiter(entry.getId(), entry.getUser().getId(), loyaltyTier(entry.getUser().getLoyaltyPoints()),
+            entry.getRequestedAt(), entry.getPlayers() != null ? entry.getPlayers() : 1,
+            new SlotKey(entry.getLaneId(), entry.getStartTime(), entry.getEndTime()));
+    }
+
+    /**
+     * 0 below 100 points, then one tier each at 100, 500 and 1000 points.
+     */
+    static int loyaltyTier(Integer loyaltyPoints) {
+        int points = loyaltyPoints != null ? loyaltyPoints : 0;
+        if (points >= 1000) {
+            return 3;
+        }
+        if (points >= 500) {
+            return 2;
+        }
+        return points >= 100 ? 1 : 0;
+    }
+}
@@ -0,0 +1,55 @@
+-- Schema as Hibernate's ddl-auto=update created it before the migrations existed.
+-- Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip this script, so it must not contain
+-- anything added since; later changes go in V2 and up.
+
+CREATE TABLE users (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    birth_date      TIMESTAMP(6),
+    email           VARCHAR(255) NOT NULL UNIQUE,
+    password        VARCHAR(255),
+    phone           VARCHAR(255),
+    role            VARCHAR(255) CHECK (role IN ('ADMIN', 'CUSTOMER', 'STAFF')),
+    loyalty_points  INTEGER,
+    created_at      TIMESTAMP(6)
+);
+
+CREATE TABLE lanes (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    number     INTEGER UNIQUE,
+    status     VARCHAR(255) CHECK (status IN ('AVAILABLE', 'OCCUPIED', 'MAINTENANCE')),
+    is_active  BOOLEAN
+);
+
+CREATE TABLE rooms (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    capacity     INTEGER,
+    description  VARCHAR(255),
+    is_active    BOOLEAN
+);
+
+CREATE TABLE bookings (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id      BIGINT REFERENCES users (id),
+    lane_id      BIGINT REFERENCES lanes (id),
+    start_time   TIMESTAMP(6),
+    end_time     TIMESTAMP(6),
+    players      INTEGER,
+    total_price  NUMERIC(38, 2),
+    status       VARCHAR(255) CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED'))
+);
+
+CREATE TABLE games (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id     BIGINT REFERENCES bookings (id),
+    game_number    INTEGER,
+    player1_score  INTEGER,
+    player2_score  INTEGER,
+    player3_score  INTEGER,
+    player4_score  INTEGER,
+    player5_score  INTEGER,
+    player6_score  INTEGER
+);
@@ -0,0 +1,56 @@
+-- Columns and tables added to the entities after the baseline. Databases that ran
+-- ddl-auto=update since may already have some of them, hence IF NOT EXISTS.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER;
+
+ALTER TABLE lanes ADD COLUMN IF NOT EXISTS lane_class VARCHAR(255)
+    CHECK (lane_class IN ('STANDARD', 'PREMIUM'));
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS hold_expires_at TIMESTAMP(6);
+
+CREATE TABLE IF NOT EXISTS booking_daily_rollup (
+    day             DATE NOT NULL,
+    lane_id         BIGINT NOT NULL,
+    status          VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED')),
+    booking_count   BIGINT NOT NULL,
+    revenue         NUMERIC(38, 2) NOT NULL,
+    player_minutes  BIGINT NOT NULL,
+    PRIMARY KEY (day, lane_id, status)
+);
+
+CREATE TABLE IF NOT EXISTS app_settings (
+    setting_key    VARCHAR(255) PRIMARY KEY,
+    setting_value  VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id                  BIGINT PRIMARY KEY,
+    user_id             BIGINT REFERENCES users (id),
+    lane_id             BIGINT,
+    start_time          TIMESTAMP(6),
+    end_time            TIMESTAMP(6),
+    players             INTEGER,
+    total_price         NUMERIC(38, 2),
+    requested_at        TIMESTAMP(6),
+    status              VARCHAR(255) CHECK (status IN ('WAITING', 'OFFERED', 'ACCEPTED', 'EXPIRED', 'CANCELLED')),
+    offered_booking_id  BIGINT,
+    offered_at          TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti         VARCHAR(255) PRIMARY KEY,
+    expires_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id             BIGINT PRIMARY KEY,
+    token_hash     VARCHAR(64) NOT NULL UNIQUE,
+    user_id        BIGINT NOT NULL REFERENCES users (id),
+    family_id      VARCHAR(36) NOT NULL,
+    token_version  INTEGER NOT NULL,
+    expires_at     TIMESTAMP(6) NOT NULL,
+    rotated_at     TIMESTAMP(6),
+    revoked        BOOLEAN NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
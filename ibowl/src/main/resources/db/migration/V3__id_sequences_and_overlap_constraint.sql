@@ -0,0 +1,30 @@
+-- Id sequences for the pooled-lo generators (allocation size 50): the sequence
+-- value is the first id of the next block, so it must sit past the current rows.
+-- The baseline identity columns are dropped so the sequences are the only id source.
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['bookings', 'games', 'lanes', 'refresh_tokens', 'rooms', 'users', 'waitlist_entries'] LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t || '_seq');
+        EXECUTE format('SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) + 1 FROM %I), false)', t || '_seq', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+    END LOOP;
+END $$;
+
+-- Stops two active bookings from overlapping on the same lane. The in-process lane
+-- locks catch conflicts first; this is the last line of defence if anything writes
+-- around BookingService. Skipped with a warning when overlapping rows already exist.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'bookings_no_overlap') THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+            EXCLUDE USING gist (lane_id WITH =, tsrange(start_time, end_time) WITH &&)
+            WHERE (status <> 'CANCELLED');
+    END IF;
+EXCEPTION
+    WHEN exclusion_violation THEN
+        RAISE WARNING 'bookings_no_overlap not created, overlapping bookings exist';
+END $$;
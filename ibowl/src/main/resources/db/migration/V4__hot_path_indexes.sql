@@ -0,0 +1,33 @@
+-- Conflict checks, availability and utilization scan one lane's bookings by start
+CREATE INDEX IF NOT EXISTS idx_bookings_lane_start ON bookings (lane_id, start_time);
+
+-- Dashboard counts and hold expiry filter on status
+CREATE INDEX IF NOT EXISTS idx_bookings_status ON bookings (status);
+
+-- Utilization reads active bookings overlapping a period as a range query
+CREATE INDEX IF NOT EXISTS idx_bookings_active_range ON bookings USING gist (tsrange(start_time, end_time))
+    WHERE status <> 'CANCELLED';
+
+-- Keyset paging orders by (start_time, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_start_time ON bookings (start_time, id);
+
+-- A user's bookings and a booking's games
+CREATE INDEX IF NOT EXISTS idx_bookings_user ON bookings (user_id);
+CREATE INDEX IF NOT EXISTS idx_games_booking ON games (booking_id);
+
+-- New-customer counts and user keyset paging by role
+CREATE INDEX IF NOT EXISTS idx_users_role_created_at ON users (role, created_at);
+
+-- User keyset paging without a role filter orders by (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at, id);
+
+-- Top customers by loyalty points
+CREATE INDEX IF NOT EXISTS idx_users_role_loyalty_points ON users (role, loyalty_points DESC);
+
+-- Case-insensitive login lookup, matched by UserRepository.findByEmailIgnoreCase
+CREATE INDEX IF NOT EXISTS idx_users_lower_email ON users (lower(email));
+
+-- Background sweepers
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_waitlist_entries_status ON waitlist_entries (status);
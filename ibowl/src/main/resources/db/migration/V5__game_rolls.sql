@@ -0,0 +1,2 @@
+-- Roll-by-roll score sheet of a game: 21 bytes per player, see ScoreCard
+ALTER TABLE games ADD COLUMN IF NOT EXISTS rolls BYTEA;
@@ -0,0 +1,14 @@
+-- Refresh tokens belong to their user: deleting the user deletes them. The existing
+-- foreign key may carry a generated name from ddl-auto, so it is looked up.
+DO $$
+DECLARE
+    c TEXT;
+BEGIN
+    FOR c IN SELECT conname FROM pg_constraint
+             WHERE conrelid = 'refresh_tokens'::regclass AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE refresh_tokens DROP CONSTRAINT %I', c);
+    END LOOP;
+END $$;
+
+ALTER TABLE refresh_tokens ADD CONSTRAINT fk_refresh_tokens_user
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
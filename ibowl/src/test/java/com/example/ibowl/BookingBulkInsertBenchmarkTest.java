@@ -0,0 +1,115 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inserts bookings through JPA with JDBC batching on and with the session batch size
+ * forced to 1, which is what identity ids used to imply. Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BookingBulkInsertBenchmarkTest {
+    private static final int BATCHED_ROWS = 100_000;
+    private static final int UNBATCHED_ROWS = 10_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired
+    private LaneRepository laneRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Lane lane;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        lane = new Lane();
+        lane.setNumber(80_000 + (int) (System.nanoTime() % 9_000));
+        lane.setIsActive(false);
+        lane = laneRepository.save(lane);
+        user = new User();
+        user.setEmail("bulk-insert-" + System.nanoTime() + "@example.com");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+            .createQuery("DELETE FROM Booking b WHERE b.lane.id = :laneId")
+            .setParameter("laneId", lane.getId())
+            .executeUpdate());
+        laneRepository.deleteById(lane.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void batchedInsertsAreAnOrderOfMagnitudeFaster() {
+        // warm up both paths
+        insert(0, 2_000, 50);
+        insert(2_000, 2_000, 1);
+
+        long started = System.nanoTime();
+        insert(10_000, UNBATCHED_ROWS, 1);
+        double unbatchedPerSecond = UNBATCHED_ROWS / ((System.nanoTime() - started) / 1e9);
+
+        started = System.nanoTime();
+        insert(100_000, BATCHED_ROWS, 50);
+        double batchedPerSecond = BATCHED_ROWS / ((System.nanoTime() - started) / 1e9);
+
+        System.out.printf("Booking inserts: %.0f rows/s batched, %.0f rows/s one per round trip (%.1fx)%n",
+            batchedPerSecond, unbatchedPerSecond, batchedPerSecond / unbatchedPerSecond);
+        assertTrue(batchedPerSecond >= unbatchedPerSecond * 10,
+            "Batched inserts ran at " + batchedPerSecond + " rows/s against " + unbatchedPerSecond);
+    }
+
+    /**
+     * Inserts hour-long bookings back to back on the test lane, in transactions of
+     * {@link #CHUNK} rows with the persistence context cleared between them.
+     */
+    private void insert(int firstSlot, int rows, int batchSize) {
+        LocalDateTime base = LocalDateTime.of(2100, 1, 1, 0, 0);
+        for (int from = 0; from < rows; from += CHUNK) {
+            int chunkStart = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                Lane laneRef = entityManager.getReference(Lane.class, lane.getId());
+                User userRef = entityManager.getReference(User.class, user.getId());
+                for (int i = chunkStart; i < Math.min(rows, chunkStart + CHUNK); i++) {
+                    Booking booking = new Booking();
+                    booking.setLane(laneRef);
+                    booking.setUser(userRef);
+                    booking.setStartTime(base.plusHours(firstSlot + i));
+                    booking.setEndTime(base.plusHours(firstSlot + i + 1));
+                    booking.setPlayers(4);
+                    booking.setTotalPrice(new BigDecimal("25.00"));
+                    booking.setStatus(BookingStatus.CONFIRMED);
+                    entityManager.persist(booking);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.exception.BookingConflictException;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.repository.UserRepository;
+import com.example.ibowl.service.BookingRollupService;
+import com.example.ibowl.service.BookingService;
+import com.example.ibowl.service.LaneBookingIndex;
+import com.example.ibowl.service.LaneLocks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Hammers BookingService from many threads and checks that no lane is ever double booked.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingConcurrencyTest {
+    private static final int THREADS = 32;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private LaneRepository laneRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private BookingRollupService bookingRollupService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private LaneBookingIndex laneBookingIndex = new LaneBookingIndex();
+    @Spy
+    private LaneLocks laneLocks = new LaneLocks();
+    @InjectMocks
+    private BookingService bookingService;
+
+    private final AtomicLong ids = new AtomicLong();
+    private final List<Booking> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(ids.incrementAndGet());
+            synchronized (saved) {
+                saved.add(booking);
+            }
+            return booking;
+        });
+    }
+
+    @Test
+    void sameLaneSameSlotIsBookedExactlyOnce() throws Exception {
+        Lane lane = lane(1L);
+        LocalDateTime start = LocalDateTime.of(2030, 3, 8, 19, 0);
+        AtomicInteger conflicts = new AtomicInteger();
+
+        List<Integer> results = runConcurrently(THREADS, i -> {
+            try {
+                bookingService.save(booking(lane, start.plusMinutes((i % 4) * 15), start.plusHours(2)));
+                return 1;
+            } catch (BookingConflictException e) {
+                conflicts.incrementAndGet();
+                return 0;
+            }
+        });
+
+        assertEquals(1, results.stream().mapToInt(Integer::intValue).sum(), "Exactly one booking should win the slot");
+        assertEquals(THREADS - 1, conflicts.get());
+        assertNoOverlaps();
+    }
+
+    @Test
+    void differentLanesDoNotBlockEachOther() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 3, 8, 19, 0);
+
+        List<Integer> results = runConcurrently(THREADS, i -> {
+            bookingService.save(booking(lane((long) i + 1), start, start.plusHours(2)));
+            return 1;
+        });
+
+        assertEquals(THREADS, results.stream().mapToInt(Integer::intValue).sum());
+        assertNoOverlaps();
+    }
+
+    @Test
+    void mixedContentionNeverDoubleBooks() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2030, 3, 8, 10, 0);
+
+        runConcurrently(THREADS * 8, i -> {
+            Lane lane = lane((long) (i % 4) + 1);
+            LocalDateTime start = base.plusMinutes((i * 37L) % 600 / 15 * 15);
+            try {
+                bookingService.save(booking(lane, start, start.plusMinutes(60 + (i % 3) * 30)));
+                return 1;
+            } catch (BookingConflictException e) {
+                return 0;
+            }
+        });
+
+        assertFalse(saved.isEmpty());
+        assertNoOverlaps();
+    }
+
+    private interface Task {
+        Integer run(int i) throws Exception;
+    }
+
+    private List<Integer> runConcurrently(int tasks, Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int n = i;
+            Callable<Integer> call = () -> {
+                start.await();
+                return task.run(n);
+            };
+            futures.add(pool.submit(call));
+        }
+        start.countDown();
+        List<Integer> results = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        return results;
+    }
+
+    private void assertNoOverlaps() {
+        for (Booking a : saved) {
+            for (Booking b : saved) {
+                if (a != b && a.getLane().getId().equals(b.getLane().getId())) {
+                    boolean overlap = a.getStartTime().isBefore(b.getEndTime()) && b.getStartTime().isBefore(a.getEndTime());
+                    assertFalse(overlap, "Bookings " + a.getId() + " and " + b.getId() + " overlap on lane " + a.getLane().getId());
+                }
+            }
+        }
+    }
+
+    private static Lane lane(Long id) {
+        Lane lane = new Lane();
+        lane.setId(id);
+        lane.setNumber(id.intValue());
+        return lane;
+    }
+
+    private static Booking booking(Lane lane, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setLane(lane);
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setPlayers(4);
+        booking.setTotalPrice(new BigDecimal("50.00"));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.ibowl;
+
+import com.example.ibowl.controller.BookingController;
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.exception.BookingConflictException;
+import com.example.ibowl.service.BookingService;
+import com.example.ibowl.service.LaneService;
+import com.example.ibowl.service.PricingEngine;
+import com.example.ibowl.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.util.Optional;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Bad booking requests are the caller's mistake and come back as 400, 404 or 409
+ * rather than 500.
+ */
+class BookingCreationParametersTest {
+    private final BookingService bookingService = mock(BookingService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UserService userService = mock(UserService.class);
+        when(userService.findById(anyLong())).thenReturn(Optional.empty());
+        when(userService.findById(1L)).thenReturn(Optional.of(new User()));
+        LaneService laneService = mock(LaneService.class);
+        when(laneService.findById(anyLong())).thenReturn(Optional.empty());
+        when(laneService.findById(1L)).thenReturn(Optional.of(new Lane()));
+        when(bookingService.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookingController controller = new BookingController();
+        ReflectionTestUtils.setField(controller, "bookingService", bookingService);
+        ReflectionTestUtils.setField(controller, "userService", userService);
+        ReflectionTestUtils.setField(controller, "laneService", laneService);
+        ReflectionTestUtils.setField(controller, "pricingEngine", new PricingEngine());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void validRequestIsAccepted() throws Exception {
+        create(body(1, 1, "18:00", "20:00", 4, null)).andExpect(status().isOk());
+    }
+
+    @Test
+    void missingOrInvalidFieldsAreBadRequests() throws Exception {
+        create(body(1, 1, "18:00", "20:00", 0, null)).andExpect(status().isBadRequest());
+        create("{\"userId\": 1, \"laneId\": 1}").andExpect(status().isBadRequest());
+        create(body(1, 1, "18:00", "20:00", 4, "SOMETIME"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Unknown booking status: SOMETIME"));
+    }
+
+    @Test
+    void endNotAfterStartIsBadRequest() throws Exception {
+        when(bookingService.save(any(Booking.class))).thenThrow(new IllegalArgumentException("End time must be after start time"));
+        create(body(1, 1, "20:00", "18:00", 4, null))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("End time must be after start time"));
+    }
+
+    @Test
+    void unknownUserOrLaneIsNotFound() throws Exception {
+        create(body(2, 1, "18:00", "20:00", 4, null))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.error").value("User not found"));
+        create(body(1, 2, "18:00", "20:00", 4, null))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.error").value("Lane not found"));
+    }
+
+    @Test
+    void takenSlotIsConflict() throws Exception {
+        when(bookingService.save(any(Booking.class))).thenThrow(new BookingConflictException("Lane 1 is already booked"));
+        create(body(1, 1, "18:00", "20:00", 4, null))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error").value("Lane 1 is already booked"));
+    }
+
+    private ResultActions create(String json) throws Exception {
+        return mockMvc.perform(post("/api/bookings").contentType(MediaType.APPLICATION_JSON).content(json));
+    }
+
+    private static String body(long userId, long laneId, String start, String end, int players, String status) {
+        return "{\"userId\": " + userId + ", \"laneId\": " + laneId
+            + ", \"startTime\": \"2030-03-01T" + start + ":00\", \"endTime\": \"2030-03-01T" + end + ":00\""
+            + ", \"players\": " + players + (status != null ? ", \"status\": \"" + status + "\"" : "") + "}";
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ibowl;
+
+import com.example.ibowl.dto.response.KeysetPage;
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.service.BookingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the booking listings against N+1 lazy loading: reading the user and lane
+ * of every listed booking must not issue more statements than the listing itself.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BookingListingQueryCountTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pagedListingUsesOneStatementWhateverThePageSize() {
+        long small = statementsToList(bookingService.findPage(null, 5, null, null, null, null));
+        long large = statementsToList(bookingService.findPage(null, 50, null, null, null, null));
+
+        assertEquals(1, small, "A page of 5 bookings should take a single statement");
+        assertEquals(1, large, "A page of 50 bookings should take a single statement");
+    }
+
+    @Test
+    void findAllLoadsUsersAndLanesWithTheBookings() {
+        List<Booking> bookings = bookingRepository.findAll();
+        touchAssociations(bookings);
+
+        assertEquals(1, statistics.getPrepareStatementCount(),
+            "Listing " + bookings.size() + " bookings should not trigger per-row selects");
+    }
+
+    private long statementsToList(KeysetPage<Booking> page) {
+        touchAssociations(page.items());
+        long statements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        return statements;
+    }
+
+    private static void touchAssociations(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            if (booking.getUser() != null) {
+                booking.getUser().getEmail();
+                booking.getUser().getFirstName();
+            }
+            if (booking.getLane() != null) {
+                booking.getLane().getNumber();
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.service.BookingRollupService;
+import com.example.ibowl.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the booking rollup against the database: deltas from booking changes, the
+ * full rebuild, a rebuild that starts while a delta is uncommitted, and one that
+ * runs after a booking committed but before its change was published.
+ */
+@SpringBootTest
+@Import(BookingRollupServiceTest.RebuildOnBookingChange.class)
+class BookingRollupServiceTest {
+    // far enough ahead that no other test books these days
+    private static final LocalDate DAY = LocalDate.of(2091, 6, 1);
+    private static final LocalDate NEXT_DAY = DAY.plusDays(1);
+
+    @Autowired
+    private BookingRollupService rollupService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        bookingRepository.deleteAllById(bookingIds);
+        rollupService.reconcile();
+    }
+
+    @Test
+    void deltasFollowBookingChangesAndAgreeWithTheRebuild() {
+        rollupService.reconcile();
+        assertEquals(0, rollupService.countBookings(DAY, NEXT_DAY));
+
+        Booking booking = save(booking(DAY, "40.00"));
+        applyChange(null, BookingSnapshot.of(booking));
+        assertEquals(1, rollupService.countBookings(DAY, DAY));
+        assertEquals(0, new BigDecimal("40.00").compareTo(rollupService.getRevenue(DAY, DAY)));
+
+        // moved to the next day at a new price
+        BookingSnapshot before = BookingSnapshot.of(booking);
+        booking.setStartTime(NEXT_DAY.atTime(18, 0));
+        booking.setEndTime(NEXT_DAY.atTime(19, 0));
+        booking.setTotalPrice(new BigDecimal("55.00"));
+        booking = save(booking);
+        applyChange(before, BookingSnapshot.of(booking));
+        assertEquals(0, rollupService.countBookings(DAY, DAY));
+        assertEquals(1, rollupService.countBookings(NEXT_DAY, NEXT_DAY));
+        assertEquals(0, new BigDecimal("55.00").compareTo(rollupService.getRevenue(DAY, NEXT_DAY)));
+
+        rollupService.reconcile();
+        assertEquals(1, rollupService.countBookings(NEXT_DAY, NEXT_DAY));
+        assertEquals(0, new BigDecimal("55.00").compareTo(rollupService.getRevenue(DAY, NEXT_DAY)));
+
+        applyChange(BookingSnapshot.of(booking), null);
+        assertEquals(0, rollupService.countBookings(DAY, NEXT_DAY));
+        assertEquals(0, BigDecimal.ZERO.compareTo(rollupService.getRevenue(DAY, NEXT_DAY)));
+        assertFalse(rollupService.isStale());
+    }
+
+    @Test
+    void rebuildWaitsForDeltasInFlight() throws Exception {
+        rollupService.reconcile();
+        CountDownLatch applied = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            // a booking and its delta written in one transaction that is still open
+            Future<?> write = threads.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                Booking booking = save(booking(DAY, "10.00"));
+                rollupService.applyChange(null, BookingSnapshot.of(booking));
+                applied.countDown();
+                await(commit);
+            }));
+            assertTrue(applied.await(10, TimeUnit.SECONDS));
+            Future<?> rebuild = threads.submit(rollupService::reconcile);
+            Thread.sleep(200);
+            assertFalse(rebuild.isDone(), "rebuild should wait for the open delta");
+
+            commit.countDown();
+            write.get(10, TimeUnit.SECONDS);
+            rebuild.get(10, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            threads.shutdownNow();
+        }
+
+        assertFalse(rollupService.isStale());
+        assertEquals(1, rollupService.countBookings(DAY, DAY));
+        assertEquals(0, new BigDecimal("10.00").compareTo(rollupService.getRevenue(DAY, DAY)));
+    }
+
+    @Test
+    void rebuildBetweenCommitAndPublishCountsTheBookingOnce() {
+        rollupService.reconcile();
+        RebuildOnBookingChange.enabled.set(true);
+        try {
+            Booking booking = bookingService.save(booking(DAY, "30.00"));
+            synchronized (bookingIds) {
+                bookingIds.add(booking.getId());
+            }
+        } finally {
+            RebuildOnBookingChange.enabled.set(false);
+        }
+
+        assertEquals(1, rollupService.countBookings(DAY, DAY));
+        assertEquals(0, new BigDecimal("30.00").compareTo(rollupService.getRevenue(DAY, DAY)));
+    }
+
+    /**
+     * Rebuilds the rollup when a booking change is published, that is after the
+     * booking has committed and before any later listener runs.
+     */
+    @TestConfiguration
+    static class RebuildOnBookingChange {
+        static final AtomicBoolean enabled = new AtomicBoolean();
+
+        @Autowired
+        private BookingRollupService rollupService;
+
+        @EventListener
+        public void onBookingChanged(BookingChangedEvent event) {
+            if (enabled.get()) {
+                rollupService.reconcile();
+            }
+        }
+    }
+
+    private void applyChange(BookingSnapshot before, BookingSnapshot after) {
+        transactionTemplate.executeWithoutResult(status -> rollupService.applyChange(before, after));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Booking save(Booking booking) {
+        Booking saved = bookingRepository.save(booking);
+        synchronized (bookingIds) {
+            bookingIds.add(saved.getId());
+        }
+        return saved;
+    }
+
+    private static Booking booking(LocalDate day, String price) {
+        Booking booking = new Booking();
+        booking.setStartTime(day.atTime(18, 0));
+        booking.setEndTime(day.atTime(19, 0));
+        booking.setPlayers(4);
+        booking.setTotalPrice(new BigDecimal(price));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
+}
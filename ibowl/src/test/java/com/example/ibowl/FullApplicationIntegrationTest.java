@@ -38,10 +38,10 @@ class FullApplicationIntegrationTest {
 
     @AfterEach
     void cleanup() {
-        userRepository.findByEmail(testEmail).ifPresent(user -> userRepository.deleteById(user.getId()));
         bookingRepository.findAll().stream()
             .filter(b -> b.getUser() != null && testEmail.equals(b.getUser().getEmail()))
             .forEach(b -> bookingRepository.deleteById(b.getId()));
+        userRepository.findByEmail(testEmail).ifPresent(user -> userRepository.deleteById(user.getId()));
     }
 
     @Test
@@ -104,5 +104,16 @@ class FullApplicationIntegrationTest {
         mockMvc.perform(get("/api/admin/dashboard/stats")
                 .header("Authorization", "Bearer " + jwt))
                 .andExpect(status().isForbidden());
+
+        // 6. Logout with the refresh token alone, no access token needed
+        String refreshJson = "{\"refreshToken\":\"" + loginNode.get("refreshToken").asText() + "\"}";
+        mockMvc.perform(post("/api/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshJson))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(refreshJson))
+                .andExpect(status().isUnauthorized());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.ibowl;
+
+import com.example.ibowl.controller.GameController;
+import com.example.ibowl.entity.Game;
+import com.example.ibowl.service.GameService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.util.Map;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class GameControllerTest {
+    private final GameService gameService = mock(GameService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        GameController controller = new GameController();
+        ReflectionTestUtils.setField(controller, "gameService", gameService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void startsAGame() throws Exception {
+        Game game = new Game();
+        game.setId(5L);
+        when(gameService.startGame(12L, 4)).thenReturn(game);
+        when(gameService.getScores(5L)).thenReturn(Map.of("gameId", 5));
+
+        mockMvc.perform(start("{\"bookingId\": 12, \"players\": \"4\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.gameId").value(5));
+    }
+
+    @Test
+    void missingOrMalformedFieldsAreBadRequests() throws Exception {
+        mockMvc.perform(start("{\"players\": 4}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("bookingId and players are required"));
+        mockMvc.perform(start("{\"bookingId\": 12, \"players\": null}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("bookingId and players are required"));
+        mockMvc.perform(start("{\"bookingId\": \"twelve\", \"players\": 4}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("bookingId and players must be whole numbers"));
+        mockMvc.perform(start("{\"bookingId\": 12, \"players\": 2.5}"))
+            .andExpect(status().isBadRequest());
+        verify(gameService, never()).startGame(anyLong(), anyInt());
+    }
+
+    @Test
+    void rejectedGameIsABadRequest() throws Exception {
+        when(gameService.startGame(12L, 9)).thenThrow(new IllegalArgumentException("A game has between 1 and 6 players"));
+
+        mockMvc.perform(start("{\"bookingId\": 12, \"players\": 9}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("A game has between 1 and 6 players"));
+    }
+
+    private static RequestBuilder start(String body) {
+        return post("/api/games").contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+}
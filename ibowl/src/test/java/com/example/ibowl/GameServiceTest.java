@@ -0,0 +1,110 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Game;
+import com.example.ibowl.repository.GameRepository;
+import com.example.ibowl.service.GameService;
+import com.example.ibowl.service.ScoreCard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameServiceTest {
+    private static final Long GAME_ID = 7L;
+
+    private final GameRepository gameRepository = mock(GameRepository.class);
+    private final GameService gameService = new GameService();
+    private final ExecutorService threads = Executors.newFixedThreadPool(2);
+    // the game row as the database holds it
+    private final AtomicReference<byte[]> row = new AtomicReference<>(new ScoreCard(1).toBytes());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(gameService, "gameRepository", gameRepository);
+        when(gameRepository.findById(GAME_ID)).thenAnswer(invocation -> {
+            Game game = new Game();
+            game.setId(GAME_ID);
+            game.setRolls(row.get().clone());
+            return Optional.of(game);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void rollsAreWrittenThroughToTheRow() {
+        persistRolls();
+        gameService.recordRoll(GAME_ID, 0, 7);
+        Map<String, Object> scores = gameService.recordRoll(GAME_ID, 0, 2);
+
+        assertEquals(GAME_ID, scores.get("gameId"));
+        ScoreCard stored = ScoreCard.fromBytes(row.get());
+        assertEquals(2, stored.rollCount(0));
+        assertEquals(9, stored.score(0));
+    }
+
+    @Test
+    void waiterDoesNotRollOnTopOfAFailedWrite() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(gameRepository.updateRolls(eq(GAME_ID), any(), any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                writing.countDown();
+                fail.await(10, TimeUnit.SECONDS);
+                throw new QueryTimeoutException("write timed out");
+            }
+            row.set(invocation.getArgument(1));
+            return 1;
+        });
+
+        Future<?> failing = threads.submit(() -> gameService.recordRoll(GAME_ID, 0, 3));
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        AtomicReference<Thread> waiter = new AtomicReference<>();
+        Future<Map<String, Object>> waiting = threads.submit(() -> {
+            waiter.set(Thread.currentThread());
+            return gameService.recordRoll(GAME_ID, 0, 4);
+        });
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((waiter.get() == null || waiter.get().getState() != Thread.State.BLOCKED) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.BLOCKED, waiter.get().getState(), "second roll should be waiting on the card");
+
+        fail.countDown();
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failing.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(QueryTimeoutException.class, failure.getCause());
+        waiting.get(10, TimeUnit.SECONDS);
+
+        // only the roll that was written made it; the 3 that failed is gone
+        ScoreCard stored = ScoreCard.fromBytes(row.get());
+        assertEquals(1, stored.rollCount(0));
+        assertEquals(4, stored.pins(0, 0));
+    }
+
+    private void persistRolls() {
+        when(gameRepository.updateRolls(eq(GAME_ID), any(), any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            row.set(invocation.getArgument(1));
+            return 1;
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.ibowl;
+
+import com.example.ibowl.security.GoogleIdTokenService;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies tokens against a local stand-in for Google's JWKS endpoint.
+ */
+class GoogleIdTokenServiceTest {
+    private static final String CLIENT_ID = "test-client.apps.googleusercontent.com";
+
+    private HttpServer keyServer;
+    private final AtomicInteger fetches = new AtomicInteger();
+    private KeyPair signingKeys;
+    private GoogleIdTokenService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        signingKeys = generator.generateKeyPair();
+        byte[] jwks = jwks((RSAPublicKey) signingKeys.getPublic()).getBytes(StandardCharsets.UTF_8);
+
+        keyServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        keyServer.createContext("/certs", exchange -> {
+            fetches.incrementAndGet();
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=3600");
+            exchange.sendResponseHeaders(200, jwks.length);
+            exchange.getResponseBody().write(jwks);
+            exchange.close();
+        });
+        keyServer.start();
+
+        service = new GoogleIdTokenService();
+        ReflectionTestUtils.setField(service, "clientId", CLIENT_ID);
+        ReflectionTestUtils.setField(service, "jwksUrl", "http://127.0.0.1:" + keyServer.getAddress().getPort() + "/certs");
+        ReflectionTestUtils.setField(service, "refreshAheadMillis", 300_000L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyServer.stop(0);
+    }
+
+    @Test
+    void verifiesSignedTokenAndReusesCachedKeys() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            GoogleIdToken token = service.verify(idToken(signingKeys, CLIENT_ID));
+            assertNotNull(token);
+            assertEquals("bowler@example.com", token.getPayload().getEmail());
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void concurrentColdVerificationsShareOneFetch() throws Exception {
+        String token = idToken(signingKeys, CLIENT_ID);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<GoogleIdToken>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            results.add(pool.submit(() -> service.verify(token)));
+        }
+        for (Future<GoogleIdToken> result : results) {
+            assertNotNull(result.get());
+        }
+        pool.shutdown();
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void rejectsForeignSignatureAndWrongAudience() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+
+        assertNull(service.verify(idToken(generator.generateKeyPair(), CLIENT_ID)));
+        assertNull(service.verify(idToken(signingKeys, "someone-else.apps.googleusercontent.com")));
+    }
+
+    private static String idToken(KeyPair keys, String audience) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+            .header().keyId("test-key").and()
+            .issuer("https://accounts.google.com")
+            .audience().add(audience).and()
+            .subject("1234567890")
+            .claim("email", "bowler@example.com")
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + 3_600_000))
+            .signWith(keys.getPrivate(), Jwts.SIG.RS256)
+            .compact();
+    }
+
+    private static String jwks(RSAPublicKey key) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return "{\"keys\":[{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"test-key\","
+            + "\"n\":\"" + encoder.encodeToString(unsigned(key.getModulus().toByteArray())) + "\","
+            + "\"e\":\"" + encoder.encodeToString(unsigned(key.getPublicExponent().toByteArray())) + "\"}]}";
+    }
+
+    private static byte[] unsigned(byte[] bytes) {
+        return bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ibowl;
+
+import com.example.ibowl.service.HoldTimingWheel;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldTimingWheelTest {
+
+    @Test
+    void timersFireExactlyAtTheirDeadline() {
+        long start = 1_000_000;
+        HoldTimingWheel wheel = new HoldTimingWheel(start);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 1; id <= 5000; id++) {
+            // spread over all levels, including beyond the wheel span
+            long delay = switch ((int) (id % 4)) {
+                case 0 -> 1 + random.nextInt(63);
+                case 1 -> 64 + random.nextInt(4096);
+                case 2 -> 4096 + random.nextInt(300_000);
+                default -> 17_000_000 + random.nextInt(1000);
+            };
+            deadlines.put(id, start + delay);
+            wheel.schedule(id, start + delay);
+        }
+
+        // id -> {previous tick, tick of the advance that fired it}
+        Map<Long, long[]> firedIn = new HashMap<>();
+        long now = start;
+        long last = deadlines.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+        while (now < last) {
+            long previous = now;
+            now = Math.min(last, now + 1 + random.nextInt(5000));
+            for (Long id : wheel.advance(now)) {
+                assertNull(firedIn.put(id, new long[] {previous, now}), "Timer " + id + " fired twice");
+            }
+        }
+
+        assertEquals(deadlines.size(), firedIn.size());
+        assertEquals(0, wheel.size());
+        // each timer fires on the first advance that reaches its deadline
+        for (Map.Entry<Long, Long> entry : deadlines.entrySet()) {
+            long[] step = firedIn.get(entry.getKey());
+            assertTrue(step[0] < entry.getValue() && entry.getValue() <= step[1],
+                "Timer " + entry.getKey() + " due at " + entry.getValue() + " fired in (" + step[0] + ", " + step[1] + "]");
+        }
+    }
+
+    @Test
+    void cancelledAndRescheduledTimers() {
+        HoldTimingWheel wheel = new HoldTimingWheel(0);
+        wheel.schedule(1L, 10);
+        wheel.schedule(2L, 10);
+        wheel.schedule(3L, 5000);
+        assertTrue(wheel.cancel(2L));
+        assertFalse(wheel.cancel(2L));
+        wheel.schedule(3L, 20);
+
+        assertEquals(List.of(), wheel.advance(9));
+        assertEquals(List.of(1L), wheel.advance(10));
+        assertEquals(List.of(3L), wheel.advance(25));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overdueTimerFiresOnNextTick() {
+        HoldTimingWheel wheel = new HoldTimingWheel(100);
+        wheel.schedule(7L, 50);
+        assertEquals(List.of(7L), wheel.advance(101));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Role;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.security.JwtAuthenticationFilter;
+import com.example.ibowl.security.JwtTokenProvider;
+import com.example.ibowl.security.TokenRevocationStore;
+import com.example.ibowl.security.TokenVersionRegistry;
+import com.example.ibowl.security.UserPrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the cost the JWT filter adds to an authenticated request.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JwtAuthenticationBenchmarkTest {
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "SecretKeyForJWTTokenGeneration12345678901234567890");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000L);
+        tokenProvider.init();
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtTokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "tokenVersionRegistry", new TokenVersionRegistry());
+        // no repository: the fast path must never need it
+        ReflectionTestUtils.setField(filter, "userPrincipalCache", new UserPrincipalCache(10, 300));
+        ReflectionTestUtils.setField(filter, "tokenRevocationStore", new TokenRevocationStore());
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bowler@example.com");
+        user.setRole(Role.CUSTOMER);
+        token = tokenProvider.generateToken(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatedRequestOverhead() throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            authenticate();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            authenticate();
+        }
+        double micros = (System.nanoTime() - started) / 1000.0 / ITERATIONS;
+        System.out.printf("JWT filter: %.2f us per authenticated request%n", micros);
+
+        assertTrue(micros < 500, "Filter took " + micros + " us per request");
+    }
+
+    private void authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
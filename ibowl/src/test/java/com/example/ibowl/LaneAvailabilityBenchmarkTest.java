@@ -0,0 +1,112 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.LaneClass;
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.event.BookingSnapshot;
+import com.example.ibowl.event.LaneChangedEvent;
+import com.example.ibowl.service.LaneAvailabilityIndex;
+import com.example.ibowl.service.LaneBookingIndex;
+import com.example.ibowl.service.PricingEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH benchmark of an availability search over a month of bookings on 48 lanes,
+ * checking the search stays well under a millisecond.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LaneAvailabilityBenchmarkTest {
+    private static final int LANES = 48;
+    private static final int DAYS = 30;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 3, 1);
+
+    private LaneAvailabilityIndex index;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        LaneBookingIndex bookings = new LaneBookingIndex();
+        index = new LaneAvailabilityIndex();
+        ReflectionTestUtils.setField(index, "laneBookingIndex", bookings);
+        ReflectionTestUtils.setField(index, "pricingEngine", new PricingEngine());
+        ReflectionTestUtils.setField(index, "maxPlayersPerLane", 6);
+
+        random = new Random(42);
+        long id = 0;
+        for (long lane = 1; lane <= LANES; lane++) {
+            index.onLaneChanged(new LaneChangedEvent(lane, (int) lane, LaneStatus.AVAILABLE, true,
+                lane % 4 == 0 ? LaneClass.PREMIUM : LaneClass.STANDARD));
+            for (int day = 0; day < DAYS; day++) {
+                // about half of each opening day booked, in one and two hour games
+                for (int hour = 10; hour < 23; hour += 2) {
+                    if (random.nextBoolean()) {
+                        Booking booking = booking(++id, lane, FIRST_DAY.plusDays(day), hour, 1 + random.nextInt(2));
+                        bookings.index(booking);
+                        index.onBookingChanged(new BookingChangedEvent(null, BookingSnapshot.of(booking)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> findFreeLanes() {
+        LocalTime from = LocalTime.of(10 + random.nextInt(12), random.nextBoolean() ? 0 : 30);
+        return index.findFreeLanes(FIRST_DAY.plusDays(random.nextInt(DAYS)), from, from.plusHours(1), 4 + random.nextInt(9));
+    }
+
+    @Test
+    void availabilitySearchIsWellUnderAMillisecond() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .include(LaneAvailabilityBenchmarkTest.class.getName() + ".findFreeLanes$")
+            .forks(1)
+            .build()).run();
+        double micros = results.iterator().next().getPrimaryResult().getScore();
+        System.out.printf("LaneAvailabilityIndex: %.2f us per search over %d lanes%n", micros, LANES);
+
+        assertTrue(micros < 100, "Availability search took " + micros + " us");
+    }
+
+    private static Booking booking(long id, long laneId, LocalDate day, int hour, int hours) {
+        Lane lane = new Lane();
+        lane.setId(laneId);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setLane(lane);
+        booking.setStartTime(day.atTime(hour, 0));
+        booking.setEndTime(day.atTime(hour, 0).plusHours(hours));
+        booking.setPlayers(4);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
+}
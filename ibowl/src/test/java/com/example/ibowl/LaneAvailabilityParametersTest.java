@@ -0,0 +1,52 @@
+package com.example.ibowl;
+
+import com.example.ibowl.controller.LaneController;
+import com.example.ibowl.service.LaneAvailabilityIndex;
+import com.example.ibowl.service.LaneService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unparseable or inconsistent free-lane search parameters come back as 400 rather than 500.
+ */
+class LaneAvailabilityParametersTest {
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        LaneService laneService = new LaneService();
+        ReflectionTestUtils.setField(laneService, "laneAvailabilityIndex", new LaneAvailabilityIndex());
+        LaneController laneController = new LaneController();
+        ReflectionTestUtils.setField(laneController, "laneService", laneService);
+        mockMvc = MockMvcBuilders.standaloneSetup(laneController).build();
+    }
+
+    @Test
+    void unparseableDateOrTimeIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/lanes/availability").param("date", "2030-02-30")
+                .param("from", "18:00").param("to", "20:00"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Invalid date or time: 2030-02-30"));
+        mockMvc.perform(get("/api/lanes/availability").param("date", "2030-03-01")
+                .param("from", "6pm").param("to", "20:00"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Invalid date or time: 6pm"));
+    }
+
+    @Test
+    void inconsistentSearchIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/lanes/availability").param("date", "2030-03-01")
+                .param("from", "20:00").param("to", "18:00"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("End time must be after start time"));
+        mockMvc.perform(get("/api/lanes/availability").param("date", "2030-03-01")
+                .param("from", "18:00").param("to", "20:00").param("players", "0"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("At least one player is required"));
+    }
+}
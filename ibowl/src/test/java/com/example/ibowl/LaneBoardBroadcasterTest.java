@@ -0,0 +1,99 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.LaneClass;
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.event.LaneBoardEvent;
+import com.example.ibowl.event.LaneChangedEvent;
+import com.example.ibowl.service.LaneBoardBroadcaster;
+import com.example.ibowl.service.LaneBookingIndex;
+import com.example.ibowl.service.LaneStateBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LaneBoardBroadcasterTest {
+    private final LaneStateBoard laneStateBoard = mock(LaneStateBoard.class);
+    private LaneBoardBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new LaneBoardBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "laneStateBoard", laneStateBoard);
+        ReflectionTestUtils.setField(broadcaster, "laneBookingIndex", new LaneBookingIndex());
+        ReflectionTestUtils.setField(broadcaster, "coalesceMillis", 10L);
+        ReflectionTestUtils.setField(broadcaster, "heartbeatSeconds", 60L);
+        ReflectionTestUtils.setField(broadcaster, "subscriberBuffer", 2);
+    }
+
+    @Test
+    void deltaPublishedWhileTheSnapshotIsReadIsDelivered() {
+        // the lane is taken right after the snapshot has read it as available
+        when(laneStateBoard.lanes()).thenAnswer(invocation -> {
+            broadcaster.onLaneChanged(laneChanged(1L, LaneStatus.OCCUPIED));
+            return List.of(state(1L, LaneStatus.AVAILABLE));
+        });
+
+        StepVerifier.create(events())
+            .assertNext(event -> assertStatus(event, 1L, LaneStatus.AVAILABLE))
+            .assertNext(event -> assertStatus(event, 1L, LaneStatus.OCCUPIED))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+        // the cancel runs on the thread that delivered the last event, which may still be at it
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (broadcaster.subscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void subscriberThatFallsBehindGetsAFreshSnapshot() {
+        // a burst while the snapshot is read overflows the subscriber's small queue
+        AtomicInteger reads = new AtomicInteger();
+        when(laneStateBoard.lanes()).thenAnswer(invocation -> {
+            if (reads.getAndIncrement() > 0) {
+                return List.of(state(1L, LaneStatus.MAINTENANCE));
+            }
+            for (long lane = 1; lane <= 64; lane++) {
+                broadcaster.onLaneChanged(laneChanged(lane, LaneStatus.MAINTENANCE));
+            }
+            return List.of(state(1L, LaneStatus.AVAILABLE));
+        });
+
+        StepVerifier.create(events())
+            .assertNext(event -> assertStatus(event, 1L, LaneStatus.AVAILABLE))
+            .assertNext(event -> assertStatus(event, 1L, LaneStatus.MAINTENANCE))
+            .thenConsumeWhile(event -> !LaneBoardEvent.RESYNC.equals(event.type()))
+            .assertNext(event -> assertEquals(LaneBoardEvent.RESYNC, event.type()))
+            .assertNext(event -> assertStatus(event, 1L, LaneStatus.MAINTENANCE))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    private Flux<LaneBoardEvent> events() {
+        return broadcaster.subscribe().filter(event -> event.data() != null).map(ServerSentEvent::data);
+    }
+
+    private static void assertStatus(LaneBoardEvent event, Long laneId, LaneStatus status) {
+        assertEquals(LaneBoardEvent.LANE_STATUS, event.type());
+        assertEquals(laneId, event.laneId());
+        assertEquals(status, event.laneStatus());
+    }
+
+    private static LaneChangedEvent laneChanged(Long laneId, LaneStatus status) {
+        return new LaneChangedEvent(laneId, laneId.intValue(), status, true, LaneClass.STANDARD);
+    }
+
+    private static LaneStateBoard.LaneState state(Long laneId, LaneStatus status) {
+        return new LaneStateBoard.LaneState(laneId, laneId.intValue(), status, true, LaneClass.STANDARD, 1L);
+    }
+}
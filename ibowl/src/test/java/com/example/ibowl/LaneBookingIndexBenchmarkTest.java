@@ -0,0 +1,104 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.service.LaneBookingIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH benchmark of a conflict check against a year of bookings on 40 lanes,
+ * checking it stays under a microsecond.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LaneBookingIndexBenchmarkTest {
+    private static final int LANES = 40;
+    private static final int DAYS = 365;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+    private static final int QUERIES = 1024;
+
+    private LaneBookingIndex index;
+    // random one hour checks, prepared up front so only the lookup is measured
+    private long[] laneIds;
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = new LaneBookingIndex();
+        Random random = new Random(42);
+        long id = 0;
+        for (long laneId = 1; laneId <= LANES; laneId++) {
+            Lane lane = new Lane();
+            lane.setId(laneId);
+            for (int day = 0; day < DAYS; day++) {
+                for (int hour = 10; hour < 22; hour += 2) {
+                    if (random.nextInt(3) > 0) {
+                        LocalDateTime start = FIRST_DAY.plusDays(day).atTime(hour, 0);
+                        Booking booking = new Booking();
+                        booking.setId(++id);
+                        booking.setLane(lane);
+                        booking.setStartTime(start);
+                        booking.setEndTime(start.plusHours(1 + random.nextInt(2)));
+                        booking.setStatus(BookingStatus.CONFIRMED);
+                        index.index(booking);
+                    }
+                }
+            }
+        }
+
+        laneIds = new long[QUERIES];
+        starts = new LocalDateTime[QUERIES];
+        ends = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            laneIds[i] = 1 + random.nextInt(LANES);
+            starts[i] = FIRST_DAY.plusDays(random.nextInt(DAYS)).atTime(10 + random.nextInt(12), random.nextBoolean() ? 0 : 30);
+            ends[i] = starts[i].plusHours(1);
+        }
+    }
+
+    @Benchmark
+    public boolean hasConflict() {
+        int i = next;
+        next = (i + 1) & (QUERIES - 1);
+        return index.hasConflict(laneIds[i], starts[i], ends[i], null);
+    }
+
+    @Test
+    void conflictCheckIsUnderAMicrosecond() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .include(LaneBookingIndexBenchmarkTest.class.getName() + ".hasConflict$")
+            .forks(1)
+            .build()).run();
+        double nanos = results.iterator().next().getPrimaryResult().getScore();
+        System.out.printf("LaneBookingIndex: %.0f ns per conflict check over %d lanes and %d days%n", nanos, LANES, DAYS);
+
+        assertTrue(nanos < 1_000, "Conflict check took " + nanos + " ns");
+    }
+}
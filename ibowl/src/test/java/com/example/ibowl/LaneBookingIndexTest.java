@@ -0,0 +1,104 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.service.LaneBookingIndex;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaneBookingIndexTest {
+    private static final LocalDateTime TEN = LocalDateTime.of(2030, 3, 1, 10, 0);
+    private static final LocalDateTime ELEVEN = TEN.plusHours(1);
+    private static final LocalDateTime NOON = TEN.plusHours(2);
+
+    private final LaneBookingIndex index = new LaneBookingIndex();
+
+    @Test
+    void adjacentBookingsDoNotConflict() {
+        index.index(booking(1L, 1L, TEN, ELEVEN, BookingStatus.CONFIRMED));
+
+        assertFalse(index.hasConflict(1L, ELEVEN, NOON, null));
+        assertFalse(index.hasConflict(1L, TEN.minusHours(1), TEN, null));
+        assertTrue(index.hasConflict(1L, ELEVEN.minusMinutes(1), NOON, null));
+        assertTrue(index.hasConflict(1L, TEN.minusHours(1), TEN.plusMinutes(1), null));
+    }
+
+    @Test
+    void identicalAndEnclosingRangesConflict() {
+        index.index(booking(1L, 1L, TEN, NOON, BookingStatus.CONFIRMED));
+
+        assertTrue(index.hasConflict(1L, TEN, NOON, null));
+        assertTrue(index.hasConflict(1L, TEN.plusMinutes(30), ELEVEN, null));
+        assertTrue(index.hasConflict(1L, TEN.minusHours(1), NOON.plusHours(1), null));
+        assertFalse(index.hasConflict(2L, TEN, NOON, null), "other lanes are unaffected");
+    }
+
+    @Test
+    void bookingBeingUpdatedIsIgnored() {
+        index.index(booking(1L, 1L, TEN, ELEVEN, BookingStatus.CONFIRMED));
+        index.index(booking(2L, 1L, ELEVEN, NOON, BookingStatus.CONFIRMED));
+
+        // moving booking 1 within its own slot is fine, into booking 2 is not
+        assertFalse(index.hasConflict(1L, TEN.plusMinutes(15), ELEVEN, 1L));
+        assertTrue(index.hasConflict(1L, TEN.plusMinutes(30), ELEVEN.plusMinutes(30), 1L));
+
+        // re-indexing the moved booking drops its old interval
+        index.index(booking(1L, 1L, NOON, NOON.plusHours(1), BookingStatus.CONFIRMED));
+        assertFalse(index.hasConflict(1L, TEN, ELEVEN, null));
+    }
+
+    @Test
+    void removedCancelledAndMovedBookingsFreeTheirLane() {
+        index.index(booking(1L, 1L, TEN, ELEVEN, BookingStatus.CONFIRMED));
+        index.index(booking(2L, 2L, TEN, ELEVEN, BookingStatus.PENDING));
+        index.index(booking(3L, 3L, TEN, ELEVEN, BookingStatus.CONFIRMED));
+
+        index.remove(1L);
+        assertFalse(index.hasConflict(1L, TEN, ELEVEN, null));
+
+        index.index(booking(2L, 2L, TEN, ELEVEN, BookingStatus.CANCELLED));
+        assertFalse(index.hasConflict(2L, TEN, ELEVEN, null));
+
+        index.index(booking(3L, 4L, TEN, ELEVEN, BookingStatus.CONFIRMED));
+        assertFalse(index.hasConflict(3L, TEN, ELEVEN, null));
+        assertTrue(index.hasConflict(4L, TEN, ELEVEN, null));
+
+        // removing an unknown booking is a no-op
+        index.remove(99L);
+        assertTrue(index.hasConflict(4L, TEN, ELEVEN, null));
+    }
+
+    @Test
+    void longBookingsStillConflictAfterTheLongestIsShortenedOrRemoved() {
+        LocalDateTime monday = TEN.minusDays(3);
+        index.index(booking(1L, 1L, monday, monday.plusDays(2), BookingStatus.CONFIRMED));
+        index.index(booking(2L, 1L, TEN.minusHours(8), TEN, BookingStatus.CONFIRMED));
+        index.index(booking(3L, 1L, NOON, NOON.plusHours(8), BookingStatus.CONFIRMED));
+
+        // the two eight hour bookings share a length; dropping one must keep the other's reach
+        index.index(booking(1L, 1L, monday, monday.plusHours(1), BookingStatus.CONFIRMED));
+        index.remove(2L);
+        assertTrue(index.hasConflict(1L, NOON.plusHours(7), NOON.plusHours(9), null));
+        assertFalse(index.hasConflict(1L, TEN.minusHours(1), TEN, null));
+        assertFalse(index.hasConflict(1L, monday.plusDays(1), monday.plusDays(1).plusHours(1), null));
+        assertTrue(index.hasConflict(1L, monday, monday.plusMinutes(30), null));
+
+        index.remove(3L);
+        index.remove(1L);
+        assertFalse(index.hasConflict(1L, monday, NOON.plusDays(1), null));
+    }
+
+    private static Booking booking(Long id, Long laneId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Lane lane = new Lane();
+        lane.setId(laneId);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setLane(lane);
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.service.LaneService;
+import com.example.ibowl.service.LaneStateBoard;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lane lookups on the booking path must come from the second-level cache once warm.
+ * Not transactional on purpose: each lookup runs in its own session, as in a request.
+ * Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class LaneCacheBenchmarkTest {
+    private static final int ITERATIONS = 10_000;
+
+    @Autowired
+    private LaneService laneService;
+    @Autowired
+    private LaneRepository laneRepository;
+    @Autowired
+    private LaneStateBoard laneStateBoard;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Lane lane;
+
+    @BeforeEach
+    void setUp() {
+        lane = new Lane();
+        lane.setNumber(90_000 + (int) (System.nanoTime() % 9_000));
+        lane = laneRepository.save(lane);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        laneRepository.deleteById(lane.getId());
+    }
+
+    @Test
+    void laneLookupsAreServedWithoutStatements() {
+        laneService.findById(lane.getId());
+        laneService.findAll();
+        statistics.clear();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertTrue(laneService.findById(lane.getId()).isPresent());
+        }
+        double findByIdMicros = (System.nanoTime() - started) / 1000.0 / ITERATIONS;
+        started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            assertFalse(laneService.findAll().isEmpty());
+        }
+        double findAllMicros = (System.nanoTime() - started) / 1000.0 / (ITERATIONS / 10);
+
+        System.out.printf("Lane findById: %.2f us, findAll: %.2f us, statements: %d, L2 hits: %d, query cache hits: %d%n",
+            findByIdMicros, findAllMicros, statistics.getPrepareStatementCount(),
+            statistics.getSecondLevelCacheHitCount(), statistics.getQueryCacheHitCount());
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "Warm lane lookups should not reach the database");
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= ITERATIONS);
+    }
+
+    @Test
+    void statusFlushKeepsTheLaneRegionCached() {
+        // board numbers are bounded, so these two sit near the top of the range
+        int number = 240 + (int) (System.nanoTime() % 8);
+        Lane changed = new Lane();
+        changed.setNumber(number);
+        changed = laneService.save(changed);
+        Lane other = new Lane();
+        other.setNumber(number + 8);
+        other = laneService.save(other);
+        try {
+            laneRepository.findById(changed.getId());
+            laneRepository.findById(other.getId());
+
+            laneService.updateStatus(changed.getId(), null, LaneStatus.OCCUPIED);
+            laneStateBoard.flush();
+            statistics.clear();
+
+            // neither lane goes back to the database, and the changed one is cached with its new status
+            assertTrue(laneRepository.findById(other.getId()).isPresent());
+            assertEquals(LaneStatus.OCCUPIED, laneRepository.findById(changed.getId()).orElseThrow().getStatus());
+            assertEquals(0, statistics.getPrepareStatementCount(), "The flush should not evict the lane region");
+        } finally {
+            laneRepository.deleteById(changed.getId());
+            laneRepository.deleteById(other.getId());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.LaneStatus;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.service.LaneStateBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LaneStateBoardTest {
+    private final LaneRepository laneRepository = mock(LaneRepository.class);
+    private final LaneStateBoard board = new LaneStateBoard(8);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(board, "laneRepository", laneRepository);
+        ReflectionTestUtils.setField(board, "eventPublisher", mock(ApplicationEventPublisher.class));
+        when(laneRepository.findAll()).thenReturn(List.of(lane(1L, 1), lane(2L, 2), lane(3L, 42)));
+        board.load();
+    }
+
+    @Test
+    void lanesNumberedPastTheBoardAreSkippedOnLoad() {
+        assertEquals(2, board.lanes().size());
+        assertNull(board.getById(3L));
+    }
+
+    @Test
+    void pollersGetEveryChangeOnceUpToThePublishedVersion() {
+        long start = board.version();
+        assertNotNull(board.transition(1, LaneStatus.AVAILABLE, LaneStatus.OCCUPIED));
+        assertNull(board.transition(1, LaneStatus.AVAILABLE, LaneStatus.MAINTENANCE));
+        assertNotNull(board.transition(2, LaneStatus.AVAILABLE, LaneStatus.MAINTENANCE));
+
+        LaneStateBoard.Changes changes = board.changesSince(start);
+        assertNotNull(changes);
+        assertEquals(board.version(), changes.version());
+        assertEquals(List.of(1, 2), changes.lanes().stream().map(LaneStateBoard.LaneState::number).toList());
+
+        assertTrue(board.changesSince(changes.version()).lanes().isEmpty());
+        assertNull(board.changesSince(changes.version() + 5), "a version from before a restart forces a reload");
+    }
+
+    private static Lane lane(Long id, int number) {
+        Lane lane = new Lane();
+        lane.setId(id);
+        lane.setNumber(number);
+        lane.setStatus(LaneStatus.AVAILABLE);
+        return lane;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.service.LaneUtilizationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JMH benchmark of the lane-performance report over a year of bookings on 40 lanes,
+ * checking it stays under 100 ms once the rows are loaded.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LaneUtilizationBenchmarkTest {
+    private static final int LANES = 40;
+    private static final int DAYS = 365;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    private LaneUtilizationService service;
+    private List<Lane> lanes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Object[]> intervals = new ArrayList<>();
+        lanes = new ArrayList<>();
+        for (long laneId = 1; laneId <= LANES; laneId++) {
+            Lane lane = new Lane();
+            lane.setId(laneId);
+            lane.setNumber((int) laneId);
+            lanes.add(lane);
+            for (int day = 0; day < DAYS; day++) {
+                // one and two hour games through the day, some running past closing
+                for (int hour = 9; hour < 23; hour += 2) {
+                    if (random.nextInt(3) > 0) {
+                        LocalDateTime start = FIRST_DAY.plusDays(day).atTime(hour, random.nextBoolean() ? 0 : 30);
+                        intervals.add(new Object[] {laneId, Timestamp.valueOf(start),
+                            Timestamp.valueOf(start.plusHours(1 + random.nextInt(2)))});
+                    }
+                }
+            }
+        }
+
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findActiveIntervalsBetween(any(), any())).thenReturn(intervals);
+        service = new LaneUtilizationService();
+        ReflectionTestUtils.setField(service, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(service, "openingTime", "10:00");
+        ReflectionTestUtils.setField(service, "closingTime", "22:00");
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> lanePerformance() {
+        return service.getLanePerformance(lanes, FIRST_DAY.atStartOfDay(), FIRST_DAY.plusDays(DAYS).atStartOfDay());
+    }
+
+    @Test
+    void yearlyReportIsUnder100Milliseconds() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .include(LaneUtilizationBenchmarkTest.class.getName() + ".lanePerformance$")
+            .forks(1)
+            .build()).run();
+        double millis = results.iterator().next().getPrimaryResult().getScore();
+        System.out.printf("LaneUtilizationService: %.2f ms per report over %d lanes and %d days%n", millis, LANES, DAYS);
+
+        assertTrue(millis < 100, "Lane performance report took " + millis + " ms");
+    }
+}
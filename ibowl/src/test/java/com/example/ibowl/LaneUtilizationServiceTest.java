@@ -0,0 +1,88 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.service.LaneUtilizationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LaneUtilizationServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 1);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final LaneUtilizationService service = new LaneUtilizationService();
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void countsOnlyMinutesInsideDaytimeHours() {
+        Map<String, Object> lane = report("10:00", "22:00", DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(),
+            row(DAY.atTime(9, 0), DAY.atTime(11, 0)));
+
+        assertEquals(720L, lane.get("openMinutes"));
+        assertEquals(60L, lane.get("bookedMinutes"));
+        assertEquals(60L, hourly(lane, 10));
+    }
+
+    @Test
+    void openingHoursPastMidnightCarryIntoTheNextDay() {
+        // open 18:00-02:00, over two whole days
+        Map<String, Object> lane = report("18:00", "02:00", DAY.atStartOfDay(), DAY.plusDays(2).atStartOfDay(),
+            row(DAY.atTime(23, 0), DAY.plusDays(1).atTime(3, 0)));
+
+        // 00:00-02:00 left over from the day before, then 18:00-02:00, then 18:00-24:00
+        assertEquals(2 * 120L + 2 * 360L, lane.get("openMinutes"));
+        assertEquals(180L, lane.get("bookedMinutes"));
+        assertEquals(60L, hourly(lane, 23));
+        assertEquals(60L, hourly(lane, 0));
+        assertEquals(60L, hourly(lane, 1));
+        assertNull(hourly(lane, 2), "closed hours are not reported");
+    }
+
+    @Test
+    void sameOpeningAndClosingTimeMeansOpenAllDay() {
+        Map<String, Object> lane = report("00:00", "00:00", DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay(),
+            row(DAY.atTime(3, 0), DAY.atTime(4, 30)));
+
+        assertEquals(1440L, lane.get("openMinutes"));
+        assertEquals(90L, lane.get("bookedMinutes"));
+    }
+
+    private Map<String, Object> report(String open, String close, LocalDateTime from, LocalDateTime to, Object[] row) {
+        ReflectionTestUtils.setField(service, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(service, "openingTime", open);
+        ReflectionTestUtils.setField(service, "closingTime", close);
+        when(bookingRepository.findActiveIntervalsBetween(any(), any())).thenReturn(List.<Object[]>of(row));
+        Lane lane = new Lane();
+        lane.setId(1L);
+        lane.setNumber(1);
+        return service.getLanePerformance(List.of(lane), from, to).get(0);
+    }
+
+    private static Object[] row(LocalDateTime start, LocalDateTime end) {
+        return new Object[] {1L, Timestamp.valueOf(start), Timestamp.valueOf(end)};
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long hourly(Map<String, Object> lane, int hour) {
+        for (Map<String, Object> entry : (List<Map<String, Object>>) lane.get("hourlyOccupancy")) {
+            if (entry.get("hour").equals(hour)) {
+                return (Long) entry.get("bookedMinutes");
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ibowl;
+
+import com.example.ibowl.controller.AdminController;
+import com.example.ibowl.controller.BookingController;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.repository.UserRepository;
+import com.example.ibowl.service.BookingService;
+import com.example.ibowl.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.util.List;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Malformed paging and filter parameters on the booking and user listings are the
+ * caller's mistake and come back as 400 rather than 500.
+ */
+class ListingParametersTest {
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findPageAfter(any(), any(), any(), any(), any(), any(), any())).thenReturn(List.of());
+        BookingService bookingService = new BookingService();
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findPageAfter(any(), any(), any(), any())).thenReturn(List.of());
+        UserService userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+
+        BookingController bookingController = new BookingController();
+        ReflectionTestUtils.setField(bookingController, "bookingService", bookingService);
+        AdminController adminController = new AdminController();
+        ReflectionTestUtils.setField(adminController, "bookingService", bookingService);
+        ReflectionTestUtils.setField(adminController, "userService", userService);
+        mockMvc = MockMvcBuilders.standaloneSetup(bookingController, adminController).build();
+    }
+
+    @Test
+    void validParametersAreAccepted() throws Exception {
+        mockMvc.perform(get("/api/bookings").param("status", "CONFIRMED").param("from", "2030-03-01")
+                .param("to", "2030-03-31T18:00:00"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/users").param("role", "STAFF")).andExpect(status().isOk());
+    }
+
+    @Test
+    void malformedBookingFiltersAreBadRequests() throws Exception {
+        mockMvc.perform(get("/api/bookings").param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Invalid cursor: not-a-cursor"));
+        mockMvc.perform(get("/api/bookings").param("status", "SOMETIME"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Unknown booking status: SOMETIME"));
+        mockMvc.perform(get("/api/bookings").param("from", "2030-13-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Invalid date: 2030-13-01"));
+        mockMvc.perform(get("/api/admin/bookings").param("to", "tomorrow"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Invalid date: tomorrow"));
+    }
+
+    @Test
+    void malformedUserFiltersAreBadRequests() throws Exception {
+        mockMvc.perform(get("/api/admin/users").param("role", "GOD"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Unknown role: GOD"));
+        mockMvc.perform(get("/api/admin/users").param("cursor", "%%%"))
+            .andExpect(status().isBadRequest());
+    }
+}
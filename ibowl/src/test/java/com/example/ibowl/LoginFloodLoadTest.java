@@ -0,0 +1,271 @@
+package com.example.ibowl;
+
+import com.example.ibowl.controller.AuthController;
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.Role;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.repository.UserRepository;
+import com.example.ibowl.security.BoundedPasswordEncoder;
+import com.example.ibowl.security.JwtTokenProvider;
+import com.example.ibowl.security.LoginRateLimiter;
+import com.example.ibowl.security.TokenRevocationStore;
+import com.example.ibowl.security.UserPrincipal;
+import com.example.ibowl.security.UserPrincipalCache;
+import com.example.ibowl.service.BookingHoldService;
+import com.example.ibowl.service.BookingRollupService;
+import com.example.ibowl.service.BookingService;
+import com.example.ibowl.service.LaneBookingIndex;
+import com.example.ibowl.service.LaneLocks;
+import com.example.ibowl.service.PricingEngine;
+import ch.qos.logback.classic.Level;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Floods a simulated request pool with logins through the login endpoint while bookings
+ * go through the same pool, and compares booking latency with and without the flood.
+ * Run with -Pbenchmark.
+ */
+@Tag("benchmark")
+@ExtendWith(MockitoExtension.class)
+class LoginFloodLoadTest {
+    private static final int REQUEST_THREADS = 64;
+    private static final int FLOOD_THREADS = 256;
+    private static final int BOOKINGS = 2_000;
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private LaneRepository laneRepository;
+    @Mock
+    private BookingRollupService bookingRollupService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private BookingHoldService bookingHoldService;
+    @Mock
+    private PricingEngine pricingEngine;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private LaneBookingIndex laneBookingIndex = new LaneBookingIndex();
+    @Spy
+    private LaneLocks laneLocks = new LaneLocks();
+    @InjectMocks
+    private BookingService bookingService;
+
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicInteger slot = new AtomicInteger();
+    private ExecutorService requestPool;
+    private BoundedPasswordEncoder encoder;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(ids.incrementAndGet());
+            return booking;
+        });
+        requestPool = Executors.newFixedThreadPool(REQUEST_THREADS);
+        int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(), hashingThreads, 16, 5_000);
+        mockMvc = loginEndpoint();
+        // outside a Spring context logback logs everything at debug, which would dominate the request cost
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestPool.shutdownNow();
+        encoder.shutdown();
+    }
+
+    @Test
+    void bookingLatencyStaysFlatDuringLoginFlood() throws Exception {
+        measureBookings(BOOKINGS);
+        long[] quiet = measureBookings(BOOKINGS);
+
+        // the same flood of requests that never hash, so the comparison isolates the cost of hashing
+        long[] baseline = measureBookingsDuring(get("/api/auth/test"), response -> { });
+
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger hashed = new AtomicInteger();
+        AtomicInteger missingRetryAfter = new AtomicInteger();
+        long[] flooded = measureBookingsDuring(post("/api/auth/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"bowler@example.com\",\"password\":\"wrong guess\"}"), response -> {
+                if (response.getStatus() == 429) {
+                    rejected.incrementAndGet();
+                    if (response.getHeader("Retry-After") == null) {
+                        missingRetryAfter.incrementAndGet();
+                    }
+                } else {
+                    hashed.incrementAndGet();
+                }
+            });
+
+        System.out.printf("Bookings quiet:          p50 %.2f ms, p99 %.2f ms%n", percentile(quiet, 50), percentile(quiet, 99));
+        System.out.printf("Bookings, request flood: p50 %.2f ms, p99 %.2f ms%n", percentile(baseline, 50), percentile(baseline, 99));
+        System.out.printf("Bookings, login flood:   p50 %.2f ms, p99 %.2f ms (%d logins hashed, %d rejected with 429)%n",
+            percentile(flooded, 50), percentile(flooded, 99), hashed.get(), rejected.get());
+
+        assertTrue(rejected.get() > 0, "The flood should have been shed");
+        assertEquals(0, missingRetryAfter.get(), "Every 429 should carry Retry-After");
+        assertTrue(percentile(flooded, 99) < percentile(baseline, 99) * 3 + 20,
+            "Booking p99 rose from " + percentile(baseline, 99) + " ms to " + percentile(flooded, 99) + " ms");
+    }
+
+    /**
+     * Keeps the request pool busy with the given request from many clients while bookings are measured.
+     */
+    private long[] measureBookingsDuring(RequestBuilder request, Consumer<MockHttpServletResponse> onResponse)
+            throws Exception {
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        ExecutorService attackers = Executors.newFixedThreadPool(FLOOD_THREADS);
+        for (int i = 0; i < FLOOD_THREADS; i++) {
+            attackers.execute(() -> {
+                while (flooding.get()) {
+                    try {
+                        // each request occupies a request thread, a login for as long as it waits on the hash
+                        requestPool.submit(() -> {
+                            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+                            onResponse.accept(response);
+                            return response.getStatus();
+                        }).get();
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            });
+        }
+        Thread.sleep(500);
+        long[] latencies = measureBookings(BOOKINGS);
+        flooding.set(false);
+        attackers.shutdown();
+        attackers.awaitTermination(30, TimeUnit.SECONDS);
+        return latencies;
+    }
+
+    /**
+     * Login endpoint backed by the real authentication manager and the bounded encoder,
+     * with rate limits high enough that only the encoder sheds the flood.
+     */
+    private MockMvc loginEndpoint() {
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bowler@example.com");
+        user.setPassword(new BCryptPasswordEncoder().encode("correct horse"));
+        user.setRole(Role.CUSTOMER);
+        UserPrincipalCache principalCache = mock(UserPrincipalCache.class);
+        when(principalCache.get(anyString())).thenReturn(user);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(email -> new UserPrincipal(user));
+        provider.setPasswordEncoder(encoder);
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "SecretKeyForJWTTokenGeneration12345678901234567890");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000L);
+        tokenProvider.init();
+
+        AuthController controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "authenticationManager", new ProviderManager(provider));
+        ReflectionTestUtils.setField(controller, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(controller, "jwtTokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(controller, "tokenRevocationStore", new TokenRevocationStore());
+        ReflectionTestUtils.setField(controller, "loginRateLimiter",
+            new LoginRateLimiter(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 1000));
+        ReflectionTestUtils.setField(controller, "userPrincipalCache", principalCache);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    /**
+     * Submits bookings one at a time through the request pool and returns each latency in nanoseconds.
+     */
+    private long[] measureBookings(int count) throws Exception {
+        long[] latencies = new long[count];
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 10, 0);
+        for (int i = 0; i < count; i++) {
+            int n = slot.getAndIncrement();
+            long started = System.nanoTime();
+            Future<?> future = requestPool.submit(() -> bookingService.save(booking(lane((long) n % 8 + 1),
+                base.plusHours(n / 8 * 2L), base.plusHours(n / 8 * 2L + 1))));
+            future.get(30, TimeUnit.SECONDS);
+            latencies[i] = System.nanoTime() - started;
+        }
+        return latencies;
+    }
+
+    private static double percentile(long[] values, int percentile) {
+        long[] sorted = Arrays.copyOf(values, values.length);
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1e6;
+    }
+
+    private static Lane lane(Long id) {
+        Lane lane = new Lane();
+        lane.setId(id);
+        lane.setNumber(id.intValue());
+        return lane;
+    }
+
+    private static Booking booking(Lane lane, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setLane(lane);
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setPlayers(4);
+        booking.setTotalPrice(new BigDecimal("50.00"));
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.ibowl;
+
+import com.example.ibowl.security.LoginRateLimiter;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    @Test
+    void emailBucketEmptiesAfterCapacityAndIgnoresCase() {
+        LoginRateLimiter limiter = new LoginRateLimiter(3, 1, 100, 100, 1000);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("Bowler@Example.com", "10.0.0." + i));
+        }
+        assertFalse(limiter.tryAcquire("bowler@example.com", "10.0.0.9"));
+        assertTrue(limiter.tryAcquire("other@example.com", "10.0.0.9"));
+    }
+
+    @Test
+    void addressBucketLimitsAcrossEmails() {
+        LoginRateLimiter limiter = new LoginRateLimiter(100, 100, 2, 1, 1000);
+        assertTrue(limiter.tryAcquire("a@example.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("b@example.com", "10.0.0.1"));
+        assertFalse(limiter.tryAcquire("c@example.com", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("c@example.com", "10.0.0.2"));
+    }
+}
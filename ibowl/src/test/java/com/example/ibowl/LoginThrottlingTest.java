@@ -0,0 +1,165 @@
+package com.example.ibowl;
+
+import com.example.ibowl.controller.AuthController;
+import com.example.ibowl.entity.Role;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.security.BoundedPasswordEncoder;
+import com.example.ibowl.security.JwtTokenProvider;
+import com.example.ibowl.security.LoginRateLimiter;
+import com.example.ibowl.security.RefreshTokenService;
+import com.example.ibowl.security.TokenRevocationStore;
+import com.example.ibowl.security.UserPrincipal;
+import com.example.ibowl.security.UserPrincipalCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Goes through the login endpoint with the real authentication manager and a
+ * bounded password encoder, checking that shed logins come back as 429 with Retry-After.
+ */
+class LoginThrottlingTest {
+    private static final String PASSWORD = "correct horse";
+    private static final String LOGIN = "{\"email\":\"bowler@example.com\",\"password\":\"" + PASSWORD + "\"}";
+
+    private final CountDownLatch parked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService background = Executors.newFixedThreadPool(2);
+    private BoundedPasswordEncoder encoder;
+    private volatile boolean blockHashing;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        PasswordEncoder gated = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                if (blockHashing) {
+                    parked.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        };
+        // one hashing thread and a single queue slot, so two parked hashes saturate it
+        encoder = new BoundedPasswordEncoder(gated, 1, 1, 30_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        background.shutdownNow();
+        encoder.shutdown();
+    }
+
+    @Test
+    void saturatedHashingReturns429WithRetryAfter() throws Exception {
+        MockMvc mockMvc = mockMvc(new LoginRateLimiter(1000, 1000, 1000, 1000, 1000));
+        mockMvc.perform(login()).andExpect(status().isOk());
+
+        blockHashing = true;
+        background.submit(() -> encoder.matches("a", "b"));
+        assertTrue(parked.await(10, TimeUnit.SECONDS));
+        background.submit(() -> encoder.matches("a", "b"));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (encoder.getQueuedTasks() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, encoder.getQueuedTasks());
+
+        mockMvc.perform(login())
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "1"))
+            .andExpect(jsonPath("$.message").value("Too many authentication requests, try again shortly"));
+
+        release.countDown();
+        blockHashing = false;
+        deadline = System.currentTimeMillis() + 5_000;
+        while (encoder.getQueuedTasks() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        mockMvc.perform(login()).andExpect(status().isOk());
+    }
+
+    @Test
+    void rateLimitedLoginReturns429WithRetryAfter() throws Exception {
+        // one attempt per email, refilled at five a minute
+        MockMvc mockMvc = mockMvc(new LoginRateLimiter(1, 5, 20, 20, 1000));
+        mockMvc.perform(login()).andExpect(status().isOk());
+        mockMvc.perform(login())
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "12"));
+    }
+
+    @Test
+    void wrongPasswordIsStill401() throws Exception {
+        MockMvc mockMvc = mockMvc(new LoginRateLimiter(1000, 1000, 1000, 1000, 1000));
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"bowler@example.com\",\"password\":\"wrong guess\"}"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().doesNotExist("Retry-After"));
+    }
+
+    private MockMvc mockMvc(LoginRateLimiter rateLimiter) {
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bowler@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        user.setRole(Role.CUSTOMER);
+
+        UserPrincipalCache principalCache = mock(UserPrincipalCache.class);
+        when(principalCache.get(anyString())).thenReturn(user);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(email -> new UserPrincipal(user));
+        provider.setPasswordEncoder(encoder);
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "SecretKeyForJWTTokenGeneration12345678901234567890");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000L);
+        tokenProvider.init();
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+        when(refreshTokenService.issue(any(User.class))).thenReturn("refresh-token");
+
+        AuthController controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "authenticationManager", new ProviderManager(provider));
+        ReflectionTestUtils.setField(controller, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(controller, "jwtTokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(controller, "tokenRevocationStore", new TokenRevocationStore());
+        ReflectionTestUtils.setField(controller, "loginRateLimiter", rateLimiter);
+        ReflectionTestUtils.setField(controller, "refreshTokenService", refreshTokenService);
+        ReflectionTestUtils.setField(controller, "userPrincipalCache", principalCache);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private static RequestBuilder login() {
+        return post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN);
+    }
+}
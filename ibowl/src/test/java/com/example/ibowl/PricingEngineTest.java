@@ -0,0 +1,66 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.LaneClass;
+import com.example.ibowl.service.PricingEngine;
+import com.example.ibowl.service.SettingsService;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTest {
+    // 2030-03-05 is a Tuesday, 2030-03-09 a Saturday
+    private static final LocalDateTime TUESDAY = LocalDateTime.of(2030, 3, 5, 0, 0);
+    private static final LocalDateTime SATURDAY = LocalDateTime.of(2030, 3, 9, 0, 0);
+
+    private final PricingEngine engine = new PricingEngine();
+
+    @Test
+    void offPeakWeekdayIsTheBaseRate() {
+        assertEquals(new BigDecimal("50.00"), engine.quote(LaneClass.STANDARD, TUESDAY.plusHours(14), TUESDAY.plusHours(16), 4));
+    }
+
+    @Test
+    void bookingAcrossThePeakStartIsPricedPerMinute() {
+        // 16:00-18:00: one hour at 25.00 and one at 30.00
+        assertEquals(new BigDecimal("55.00"), engine.quote(LaneClass.STANDARD, TUESDAY.plusHours(16), TUESDAY.plusHours(18), 4));
+    }
+
+    @Test
+    void weekendLaneClassAndExtraPlayersAreApplied() {
+        // 25.00 x 1.25 weekend x 1.5 premium = 46.875/h, plus two extra players at 3.00/h
+        assertEquals(new BigDecimal("52.88"), engine.quote(LaneClass.PREMIUM, SATURDAY.plusHours(11), SATURDAY.plusHours(12), 6));
+    }
+
+    @Test
+    void bookingSpanningAWeekBoundary() {
+        LocalDateTime sunday = SATURDAY.plusDays(1).plusHours(23);
+        // Sunday 23:00-24:00 is weekend off-peak, Monday 00:00-01:00 weekday off-peak
+        assertEquals(new BigDecimal("56.25"), engine.quote(LaneClass.STANDARD, sunday, sunday.plusHours(2), 4));
+    }
+
+    @Test
+    void rebuildSwapsRatesAndRejectsInvalidSettings() {
+        Map<String, Object> settings = new HashMap<>(SettingsService.DEFAULTS);
+        settings.put("lanePrice", "40.00");
+        engine.rebuild(settings);
+        assertEquals(new BigDecimal("40.00"), engine.quote(LaneClass.STANDARD, TUESDAY.plusHours(10), TUESDAY.plusHours(11), 2));
+
+        settings.put("peakStart", "late");
+        assertThrows(IllegalArgumentException.class, () -> engine.rebuild(settings));
+        assertEquals(new BigDecimal("40.00"), engine.quote(LaneClass.STANDARD, TUESDAY.plusHours(10), TUESDAY.plusHours(11), 2));
+    }
+
+    @Test
+    void preparedTableIsOnlyUsedOnceSwappedIn() {
+        Map<String, Object> settings = new HashMap<>(SettingsService.DEFAULTS);
+        settings.put("lanePrice", "40.00");
+        Runnable swap = engine.prepare(settings);
+        assertEquals(new BigDecimal("25.00"), engine.quote(LaneClass.STANDARD, TUESDAY.plusHours(10), TUESDAY.plusHours(11), 2));
+
+        swap.run();
+        assertEquals(new BigDecimal("40.00"), engine.quote(LaneClass.STANDARD, TUESDAY.plusHours(10), TUESDAY.plusHours(11), 2));
+    }
+}
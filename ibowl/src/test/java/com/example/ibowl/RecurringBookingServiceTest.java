@@ -0,0 +1,235 @@
+package com.example.ibowl;
+
+import com.example.ibowl.dto.request.RecurringBookingRequest;
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.event.BookingChangedEvent;
+import com.example.ibowl.exception.BookingConflictException;
+import com.example.ibowl.exception.ResourceNotFoundException;
+import com.example.ibowl.repository.BookingRepository;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.repository.UserRepository;
+import com.example.ibowl.service.BookingHoldService;
+import com.example.ibowl.service.BookingRollupService;
+import com.example.ibowl.service.LaneBookingIndex;
+import com.example.ibowl.service.LaneLocks;
+import com.example.ibowl.service.PricingEngine;
+import com.example.ibowl.service.RecurringBookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecurringBookingServiceTest {
+    private static final LocalDate FIRST = LocalDate.of(2030, 3, 4);
+    private static final LocalTime TEN = LocalTime.of(10, 0);
+    private static final LocalTime ELEVEN = LocalTime.of(11, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private LaneRepository laneRepository;
+    @Mock
+    private PricingEngine pricingEngine;
+    @Mock
+    private BookingHoldService bookingHoldService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private BookingRollupService bookingRollupService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private LaneBookingIndex laneBookingIndex = new LaneBookingIndex();
+    @Spy
+    private LaneLocks laneLocks = new LaneLocks();
+    @InjectMocks
+    private RecurringBookingService recurringBookingService;
+
+    private final AtomicLong ids = new AtomicLong(1000);
+    private final List<Booking> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        lenient().when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        lenient().when(laneRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Lane> lanes = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (id < 100) {
+                    lanes.add(lane(id));
+                }
+            }
+            return lanes;
+        });
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            for (Booking booking : bookings) {
+                booking.setId(ids.incrementAndGet());
+                saved.add(booking);
+            }
+            return bookings;
+        });
+    }
+
+    @Test
+    void expandsTheSeriesOnEveryLaneIncludingPastMidnight() {
+        RecurringBookingRequest request = request(List.of(1L, 2L), 3, LocalTime.of(22, 0), LocalTime.of(1, 0));
+        request.setIntervalWeeks(2);
+
+        Map<String, Object> result = recurringBookingService.createSeries(request);
+
+        assertEquals(6, result.get("created"));
+        assertEquals(List.of(), result.get("conflicts"));
+        assertEquals(6, saved.size());
+        for (int k = 0; k < 3; k++) {
+            LocalDate day = FIRST.plusWeeks(2L * k);
+            for (Long laneId : List.of(1L, 2L)) {
+                Booking booking = find(laneId, day.atTime(22, 0));
+                assertEquals(day.plusDays(1).atTime(1, 0), booking.getEndTime());
+                assertEquals(BookingStatus.CONFIRMED, booking.getStatus());
+                assertTrue(laneBookingIndex.hasConflict(laneId, booking.getStartTime(), booking.getEndTime(), null));
+            }
+        }
+        verify(eventPublisher, times(6)).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    @Test
+    void onlyOverlapsAtTheSeriesBoundariesConflict() {
+        // touching the first occurrence from before and the second from after
+        indexExisting(1L, FIRST.atTime(9, 0), FIRST.atTime(10, 0));
+        indexExisting(1L, FIRST.plusWeeks(1).atTime(11, 0), FIRST.plusWeeks(1).atTime(12, 0));
+        // overlapping the end of the last occurrence by a minute
+        indexExisting(1L, FIRST.plusWeeks(2).atTime(10, 59), FIRST.plusWeeks(2).atTime(12, 0));
+
+        Map<String, Object> result = recurringBookingService.createSeries(request(List.of(1L), 3, TEN, ELEVEN));
+
+        assertEquals(2, result.get("created"));
+        List<?> conflicts = (List<?>) result.get("conflicts");
+        assertEquals(1, conflicts.size());
+        assertEquals(FIRST.plusWeeks(2).toString(), ((Map<?, ?>) conflicts.get(0)).get("date"));
+    }
+
+    @Test
+    void bookingStartingBeforeTheSeriesConflictsWithTheFirstOccurrence() {
+        // a long overnight booking that runs into the first occurrence
+        indexExisting(1L, FIRST.minusDays(1).atTime(20, 0), FIRST.atTime(10, 1));
+
+        Map<String, Object> result = recurringBookingService.createSeries(request(List.of(1L), 2, TEN, ELEVEN));
+
+        assertEquals(1, result.get("created"));
+        List<?> conflicts = (List<?>) result.get("conflicts");
+        assertEquals(FIRST.toString(), ((Map<?, ?>) conflicts.get(0)).get("date"));
+    }
+
+    @Test
+    void anyConflictRejectsTheWholeSeriesWhenNotSkipping() {
+        indexExisting(2L, FIRST.plusWeeks(1).atTime(10, 30), FIRST.plusWeeks(1).atTime(11, 30));
+        RecurringBookingRequest request = request(List.of(1L, 2L), 4, TEN, ELEVEN);
+        request.setSkipConflicts(false);
+
+        assertThrows(BookingConflictException.class, () -> recurringBookingService.createSeries(request));
+
+        verify(bookingRepository, never()).saveAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+        assertFalse(laneBookingIndex.hasConflict(1L, FIRST.atTime(TEN), FIRST.plusWeeks(4).atTime(ELEVEN), null));
+    }
+
+    @Test
+    void concurrentOverlapRollsBackTheWholeSeries() {
+        when(bookingRepository.saveAll(anyList()))
+            .thenThrow(new DataIntegrityViolationException("violates exclusion constraint \"bookings_no_overlap\""));
+
+        assertThrows(BookingConflictException.class,
+            () -> recurringBookingService.createSeries(request(List.of(1L, 2L), 3, TEN, ELEVEN)));
+
+        verify(eventPublisher, never()).publishEvent(any());
+        assertFalse(laneBookingIndex.hasConflict(1L, FIRST.atTime(TEN), FIRST.plusWeeks(3).atTime(ELEVEN), null));
+        assertFalse(laneBookingIndex.hasConflict(2L, FIRST.atTime(TEN), FIRST.plusWeeks(3).atTime(ELEVEN), null));
+    }
+
+    @Test
+    void unknownUserOrLaneIsNotFoundAndBadStatusIsRejected() {
+        RecurringBookingRequest unknownUser = request(List.of(1L), 1, TEN, ELEVEN);
+        unknownUser.setUserId(99L);
+        assertThrows(ResourceNotFoundException.class, () -> recurringBookingService.createSeries(unknownUser));
+
+        assertThrows(ResourceNotFoundException.class,
+            () -> recurringBookingService.createSeries(request(List.of(1L, 100L), 1, TEN, ELEVEN)));
+
+        RecurringBookingRequest badStatus = request(List.of(1L), 1, TEN, ELEVEN);
+        badStatus.setStatus("SOMETIME");
+        assertThrows(IllegalArgumentException.class, () -> recurringBookingService.createSeries(badStatus));
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
+    private Booking find(Long laneId, LocalDateTime start) {
+        return saved.stream()
+            .filter(booking -> booking.getLane().getId().equals(laneId) && booking.getStartTime().equals(start))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("no booking on lane " + laneId + " at " + start));
+    }
+
+    private void indexExisting(Long laneId, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(ids.incrementAndGet());
+        booking.setLane(lane(laneId));
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        laneBookingIndex.index(booking);
+    }
+
+    private static RecurringBookingRequest request(List<Long> laneIds, int occurrences, LocalTime start, LocalTime end) {
+        RecurringBookingRequest request = new RecurringBookingRequest();
+        request.setUserId(1L);
+        request.setLaneIds(laneIds);
+        request.setFirstDate(FIRST);
+        request.setStartTime(start);
+        request.setEndTime(end);
+        request.setOccurrences(occurrences);
+        request.setPlayers(4);
+        return request;
+    }
+
+    private static Lane lane(Long id) {
+        Lane lane = new Lane();
+        lane.setId(id);
+        lane.setNumber(id.intValue());
+        return lane;
+    }
+}
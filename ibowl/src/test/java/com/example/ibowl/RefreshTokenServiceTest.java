@@ -0,0 +1,112 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.RefreshToken;
+import com.example.ibowl.entity.Role;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.event.UserChangedEvent;
+import com.example.ibowl.repository.RefreshTokenRepository;
+import com.example.ibowl.security.RefreshTokenService;
+import com.example.ibowl.security.TokenVersionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private final TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry();
+    private final Map<String, RefreshToken> byHash = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private RefreshTokenService service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenService(100);
+        ReflectionTestUtils.setField(service, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(service, "tokenVersionRegistry", tokenVersionRegistry);
+        ReflectionTestUtils.setField(service, "expirationDays", 30L);
+
+        lenient().when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId(ids.incrementAndGet());
+            byHash.put(token.getTokenHash(), token);
+            return token;
+        });
+        lenient().when(refreshTokenRepository.findWithUserByTokenHash(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(byHash.get(invocation.<String>getArgument(0))));
+        lenient().when(refreshTokenRepository.markRotated(anyLong(), any())).thenAnswer(invocation -> {
+            for (RefreshToken token : byHash.values()) {
+                if (token.getId().equals(invocation.getArgument(0)) && token.getRotatedAt() == null) {
+                    token.setRotatedAt(invocation.getArgument(1));
+                    return 1;
+                }
+            }
+            return 0;
+        });
+
+        user = new User();
+        user.setId(7L);
+        user.setEmail("bowler@example.com");
+        user.setRole(Role.CUSTOMER);
+    }
+
+    @Test
+    void rotationReturnsNewTokenForSameUser() {
+        String first = service.issue(user);
+
+        RefreshTokenService.Rotation rotation = service.rotate(first);
+
+        assertNotNull(rotation);
+        assertSame(user, rotation.user());
+        assertNotEquals(first, rotation.refreshToken());
+        assertNotNull(service.rotate(rotation.refreshToken()));
+        verify(refreshTokenRepository, never()).findWithUserByTokenHash(anyString());
+    }
+
+    @Test
+    void reusingRotatedTokenRevokesTheFamily() {
+        String first = service.issue(user);
+        RefreshToken stored = byHash.values().iterator().next();
+        assertNotNull(service.rotate(first));
+
+        assertNull(service.rotate(first));
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+    }
+
+    @Test
+    void tokenIssuedBeforePasswordChangeIsRejected() {
+        String token = service.issue(user);
+        tokenVersionRegistry.onUserChanged(new UserChangedEvent(7L, user.getEmail(), 1));
+        service.onUserChanged(new UserChangedEvent(7L, user.getEmail(), 1));
+
+        assertNull(service.rotate(token));
+    }
+
+    @Test
+    void expiredAndUnknownTokensAreRejected() {
+        String token = service.issue(user);
+        byHash.values().forEach(stored -> stored.setExpiresAt(LocalDateTime.now().minusMinutes(1)));
+        service.onUserChanged(new UserChangedEvent(7L, user.getEmail(), 0));
+
+        assertNull(service.rotate(token));
+        assertNull(service.rotate("not-a-token"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.ibowl;
+
+import com.example.ibowl.service.ScoreCard;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JMH benchmark of ScoreCard rolls per second on six-player games, with the GC
+ * profiler to check that recording a roll allocates nothing.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScoreCardBenchmarkTest {
+    private static final int GAMES = 256;
+
+    private ScoreCard card;
+    // whole games back to back, bowled frame by frame in player order
+    private byte[] players;
+    private byte[] pins;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ScoreCard generator = new ScoreCard(ScoreCard.MAX_PLAYERS);
+        byte[] p = new byte[GAMES * ScoreCard.MAX_PLAYERS * ScoreCard.MAX_ROLLS];
+        byte[] n = new byte[p.length];
+        int size = 0;
+        for (int game = 0; game < GAMES; game++) {
+            generator.reset();
+            for (int frame = 0; frame < ScoreCard.FRAMES; frame++) {
+                for (int player = 0; player < ScoreCard.MAX_PLAYERS; player++) {
+                    while (generator.currentFrame(player) == frame) {
+                        int knocked = random.nextInt(generator.pinsStanding(player) + 1);
+                        generator.roll(player, knocked);
+                        p[size] = (byte) player;
+                        n[size] = (byte) knocked;
+                        size++;
+                    }
+                }
+            }
+        }
+        players = Arrays.copyOf(p, size);
+        pins = Arrays.copyOf(n, size);
+        card = new ScoreCard(ScoreCard.MAX_PLAYERS);
+        next = 0;
+    }
+
+    @Benchmark
+    public int roll() {
+        int i = next;
+        int score = card.roll(players[i], pins[i]);
+        next = i + 1 == players.length ? 0 : i + 1;
+        if (card.isComplete()) {
+            card.reset();
+        }
+        return score;
+    }
+
+    @Test
+    void rollsPerSecond() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .include(ScoreCardBenchmarkTest.class.getName() + ".roll$")
+            .forks(1)
+            .timeUnit(TimeUnit.SECONDS)
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+        RunResult result = results.iterator().next();
+
+        double rollsPerSecond = result.getPrimaryResult().getScore();
+        Result<?> allocated = result.getSecondaryResults().get("gc.alloc.rate.norm");
+        System.out.printf("ScoreCard: %.0f rolls/s, %.2f bytes allocated per roll%n",
+            rollsPerSecond, allocated != null ? allocated.getScore() : Double.NaN);
+
+        assertTrue(rollsPerSecond > 10_000_000, "Only " + rollsPerSecond + " rolls/s");
+        if (allocated != null) {
+            assertTrue(allocated.getScore() < 1.0, allocated.getScore() + " bytes allocated per roll");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ibowl;
+
+import com.example.ibowl.service.ScoreCard;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreCardTest {
+
+    @Test
+    void perfectGameIs300() {
+        ScoreCard card = new ScoreCard(1);
+        bowl(card, 0, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 10);
+        assertTrue(card.isComplete());
+        assertEquals(300, card.score(0));
+        assertEquals(30, card.frameTotal(0, 0));
+    }
+
+    @Test
+    void mixedGameWithTenthFrameBonus() {
+        // X, 7/, 9-, X, -8, 8/, -6, X, X, X81
+        ScoreCard card = new ScoreCard(1);
+        bowl(card, 0, 10, 7, 3, 9, 0, 10, 0, 8, 8, 2, 0, 6, 10, 10, 10, 8, 1);
+        assertTrue(card.isFinished(0));
+        int[] expected = {20, 39, 48, 66, 74, 84, 90, 120, 148, 167};
+        for (int frame = 0; frame < ScoreCard.FRAMES; frame++) {
+            assertEquals(expected[frame], card.frameTotal(0, frame), "frame " + (frame + 1));
+        }
+        assertEquals(167, card.score(0));
+    }
+
+    @Test
+    void strikeAndSpareWaitForTheirBonusBalls() {
+        ScoreCard card = new ScoreCard(1);
+        assertEquals(0, card.roll(0, 10));
+        assertEquals(-1, card.frameTotal(0, 0));
+        assertEquals(0, card.roll(0, 4));
+        assertEquals(-1, card.frameTotal(0, 0));
+        assertEquals(20, card.roll(0, 6));
+        assertEquals(-1, card.frameTotal(0, 1));
+        assertEquals(37, card.roll(0, 7));
+        assertEquals(37, card.frameTotal(0, 1));
+    }
+
+    @Test
+    void openTenthFrameEndsAfterTwoBalls() {
+        ScoreCard card = new ScoreCard(1);
+        bowl(card, 0, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 4);
+        assertTrue(card.isFinished(0));
+        assertEquals(20, card.rollCount(0));
+        assertEquals(144, card.score(0));
+        assertThrows(IllegalArgumentException.class, () -> card.roll(0, 0));
+    }
+
+    @Test
+    void rejectsMorePinsThanStanding() {
+        ScoreCard card = new ScoreCard(2);
+        card.roll(0, 7);
+        assertThrows(IllegalArgumentException.class, () -> card.roll(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> card.roll(1, 11));
+        assertThrows(IllegalArgumentException.class, () -> card.roll(2, 1));
+        assertEquals(3, card.pinsStanding(0));
+
+        // tenth frame: strike then 3 leaves 7 for the bonus ball
+        ScoreCard tenth = new ScoreCard(1);
+        bowl(tenth, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 10, 3);
+        assertThrows(IllegalArgumentException.class, () -> tenth.roll(0, 8));
+        tenth.roll(0, 7);
+        assertEquals(20, tenth.score(0));
+    }
+
+    @Test
+    void bytesRoundTripMidGame() {
+        ScoreCard card = new ScoreCard(3);
+        bowl(card, 0, 10, 3, 7, 2);
+        bowl(card, 1, 9, 1);
+        byte[] data = card.toBytes();
+        assertEquals(3 * ScoreCard.MAX_ROLLS, data.length);
+
+        ScoreCard restored = ScoreCard.fromBytes(data);
+        assertEquals(3, restored.players());
+        assertEquals(card.score(0), restored.score(0));
+        assertEquals(card.currentFrame(0), restored.currentFrame(0));
+        assertEquals(card.pinsStanding(0), restored.pinsStanding(0));
+        assertEquals(0, restored.rollCount(2));
+        restored.roll(1, 5);
+        assertEquals(15, restored.score(1));
+
+        data[0] = 11;
+        assertThrows(IllegalArgumentException.class, () -> ScoreCard.fromBytes(data));
+        assertThrows(IllegalArgumentException.class, () -> ScoreCard.fromBytes(new byte[20]));
+    }
+
+    private static void bowl(ScoreCard card, int player, int... pins) {
+        for (int p : pins) {
+            card.roll(player, p);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ibowl;
+
+import com.example.ibowl.repository.RevokedTokenRepository;
+import com.example.ibowl.security.BloomFilter;
+import com.example.ibowl.security.TokenRevocationStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Instant;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationStoreTest {
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+    @InjectMocks
+    private TokenRevocationStore store;
+
+    @Test
+    void revokedTokenIsRejectedAndOthersAreNot() {
+        ReflectionTestUtils.setField(store, "expectedTokens", 1000);
+        store.revoke("logged-out", Instant.now().plusSeconds(3600));
+
+        assertTrue(store.isRevoked("logged-out"));
+        assertFalse(store.isRevoked("still-valid"));
+        assertFalse(store.isRevoked(null));
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotStored() {
+        store.revoke("old", Instant.now().minusSeconds(1));
+
+        assertFalse(store.isRevoked("old"));
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void bloomFilterNeverMissesAndRarelyFalselyMatches() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("added-" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("added-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "False positive rate too high: " + falsePositives);
+    }
+
+    @Test
+    void filterIsOnlyRebuiltWhenTheSetOutgrowsIt() {
+        ReflectionTestUtils.setField(store, "expectedTokens", 4);
+        for (int i = 0; i < 5; i++) {
+            store.revoke("token-" + i, Instant.now().plusSeconds(3600));
+        }
+        Object filter = ReflectionTestUtils.getField(store, "filter");
+        assertEquals(10, ReflectionTestUtils.getField(store, "filterCapacity"));
+
+        store.revoke("token-5", Instant.now().plusSeconds(3600));
+
+        assertSame(filter, ReflectionTestUtils.getField(store, "filter"));
+        for (int i = 0; i < 6; i++) {
+            assertTrue(store.isRevoked("token-" + i));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.ibowl;
+
+import com.example.ibowl.entity.Role;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.event.UserChangedEvent;
+import com.example.ibowl.repository.UserRepository;
+import com.example.ibowl.security.UserPrincipalCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void servesRepeatLookupsFromMemoryByNormalizedEmail() {
+        UserPrincipalCache cache = cache(100, 300);
+        when(userRepository.findByEmailIgnoreCase("bowler@example.com")).thenReturn(Optional.of(user(Role.CUSTOMER)));
+
+        assertNotNull(cache.get("Bowler@Example.com"));
+        assertNotNull(cache.get(" bowler@example.com"));
+        assertNotNull(cache.get("bowler@example.com"));
+
+        verify(userRepository, times(1)).findByEmailIgnoreCase("bowler@example.com");
+        assertEquals(2L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void userChangeDropsTheEntrySoTheNewRoleIsSeen() {
+        UserPrincipalCache cache = cache(100, 300);
+        when(userRepository.findByEmailIgnoreCase("bowler@example.com"))
+            .thenReturn(Optional.of(user(Role.CUSTOMER)), Optional.of(user(Role.ADMIN)));
+
+        assertEquals(Role.CUSTOMER, cache.get("bowler@example.com").getRole());
+        cache.onUserChanged(new UserChangedEvent(7L, "old-address@example.com", 1));
+
+        assertEquals(Role.ADMIN, cache.get("bowler@example.com").getRole());
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        UserPrincipalCache cache = cache(100, 300);
+        when(userRepository.findByEmailIgnoreCase("bowler@example.com")).thenAnswer(invocation -> {
+            // the user is changed while the old row is being read
+            cache.invalidate(7L, "bowler@example.com");
+            return Optional.of(user(Role.CUSTOMER));
+        });
+
+        cache.get("bowler@example.com");
+        cache.get("bowler@example.com");
+
+        verify(userRepository, times(2)).findByEmailIgnoreCase("bowler@example.com");
+    }
+
+    @Test
+    void expiredAndOverflowingEntriesAreEvicted() {
+        UserPrincipalCache expiring = cache(100, 0);
+        when(userRepository.findByEmailIgnoreCase("bowler@example.com")).thenReturn(Optional.of(user(Role.CUSTOMER)));
+        expiring.get("bowler@example.com");
+        expiring.get("bowler@example.com");
+        assertEquals(1L, expiring.getStats().get("evictions"));
+
+        UserPrincipalCache small = cache(1, 300);
+        when(userRepository.findByEmailIgnoreCase("other@example.com")).thenReturn(Optional.of(user(Role.CUSTOMER)));
+        small.get("bowler@example.com");
+        small.get("other@example.com");
+        assertEquals(1, small.getStats().get("size"));
+        assertEquals(1L, small.getStats().get("evictions"));
+    }
+
+    private UserPrincipalCache cache(int maxSize, long ttlSeconds) {
+        UserPrincipalCache cache = new UserPrincipalCache(maxSize, ttlSeconds);
+        ReflectionTestUtils.setField(cache, "userRepository", userRepository);
+        return cache;
+    }
+
+    private static User user(Role role) {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("bowler@example.com");
+        user.setRole(role);
+        return user;
+    }
+}
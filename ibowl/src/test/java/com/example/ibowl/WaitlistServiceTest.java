@@ -0,0 +1,232 @@
+package com.example.ibowl;
+
+import com.example.ibowl.dto.request.WaitlistRequest;
+import com.example.ibowl.entity.Booking;
+import com.example.ibowl.entity.BookingStatus;
+import com.example.ibowl.entity.Lane;
+import com.example.ibowl.entity.User;
+import com.example.ibowl.entity.WaitlistEntry;
+import com.example.ibowl.entity.WaitlistStatus;
+import com.example.ibowl.exception.BookingConflictException;
+import com.example.ibowl.exception.ResourceNotFoundException;
+import com.example.ibowl.repository.LaneRepository;
+import com.example.ibowl.repository.UserRepository;
+import com.example.ibowl.repository.WaitlistEntryRepository;
+import com.example.ibowl.service.BookingService;
+import com.example.ibowl.service.LaneBookingIndex;
+import com.example.ibowl.service.PricingEngine;
+import com.example.ibowl.service.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+    private static final LocalDateTime TEN = LocalDateTime.of(2030, 3, 1, 10, 0);
+    private static final LocalDateTime ELEVEN = TEN.plusHours(1);
+    private static final LocalDateTime NOON = TEN.plusHours(2);
+
+    @Mock
+    private WaitlistEntryRepository waitlistRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private LaneRepository laneRepository;
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private PricingEngine pricingEngine;
+    @Spy
+    private LaneBookingIndex laneBookingIndex = new LaneBookingIndex();
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private final AtomicLong ids = new AtomicLong(100);
+    private final Map<Long, User> users = new HashMap<>();
+    // bookings offered, in order
+    private final List<Booking> offered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            WaitlistEntry entry = invocation.getArgument(0);
+            entry.setId(ids.incrementAndGet());
+            return entry;
+        });
+        lenient().when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(users.get(invocation.<Long>getArgument(0))));
+        lenient().when(laneRepository.existsById(anyLong())).thenReturn(true);
+        lenient().when(laneRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(lane(invocation.getArgument(0))));
+        lenient().when(waitlistRepository.markOffered(any(), any(), any(), any())).thenReturn(1);
+        // an offer holds its slot, as BookingService indexes what it saves
+        lenient().when(bookingService.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(ids.incrementAndGet());
+            laneBookingIndex.index(booking);
+            offered.add(booking);
+            return booking;
+        });
+    }
+
+    @Test
+    void offersGoToLoyaltyTierThenFirstCome() {
+        join(user(1L, 0), 1L, TEN, ELEVEN);
+        join(user(2L, 0), 1L, TEN, ELEVEN);
+        join(user(3L, 600), 1L, TEN, ELEVEN);
+        join(user(4L, 0), 1L, TEN, ELEVEN);
+
+        List<Long> order = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            waitlistService.offerFreedSlot(1L, TEN, ELEVEN);
+            assertEquals(i + 1, offered.size(), "one offer per release while the slot is held");
+            Booking offer = offered.get(i);
+            order.add(offer.getUser().getId());
+            // the offer lapses and frees the slot again
+            laneBookingIndex.remove(offer.getId());
+        }
+        assertEquals(List.of(3L, 1L, 2L, 4L), order);
+    }
+
+    @Test
+    void offersOnlySlotsThatFitTheFreedTime() {
+        // someone else still holds 11:00-12:00 on lane 1
+        Booking held = new Booking();
+        held.setId(1L);
+        held.setLane(lane(1L));
+        held.setStartTime(ELEVEN);
+        held.setEndTime(NOON);
+        held.setStatus(BookingStatus.CONFIRMED);
+        laneBookingIndex.index(held);
+
+        join(user(1L, 1000), 2L, TEN, ELEVEN);
+        join(user(2L, 1000), 1L, TEN, NOON);
+        join(user(3L, 0), 1L, TEN.plusDays(1), ELEVEN.plusDays(1));
+        join(user(4L, 0), null, TEN, ELEVEN);
+
+        waitlistService.offerFreedSlot(1L, TEN, ELEVEN);
+
+        assertEquals(1, offered.size());
+        Booking offer = offered.get(0);
+        assertEquals(4L, offer.getUser().getId());
+        assertEquals(1L, offer.getLane().getId());
+        assertEquals(TEN, offer.getStartTime());
+        assertEquals(ELEVEN, offer.getEndTime());
+        assertEquals(BookingStatus.PENDING, offer.getStatus());
+        verify(waitlistRepository).markOffered(any(), any(), any(), any());
+    }
+
+    @Test
+    void offersStopAtTheCapWhenTheyKeepLosingRaces() {
+        when(bookingService.save(any(Booking.class))).thenThrow(new BookingConflictException("taken"));
+        join(user(1L, 0), 1L, TEN, ELEVEN);
+
+        waitlistService.offerFreedSlot(1L, TEN, ELEVEN);
+
+        verify(bookingService, times(WaitlistService.MAX_OFFERS_PER_RELEASE)).save(any(Booking.class));
+        // the waiter went back in the queue and is offered the next release
+        reset(bookingService);
+        when(bookingService.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(ids.incrementAndGet());
+            laneBookingIndex.index(booking);
+            return booking;
+        });
+        waitlistService.offerFreedSlot(1L, TEN, ELEVEN);
+        verify(bookingService, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    void releaseLooksBackAsFarAsTheLongestWaitingSlot() {
+        join(user(1L, 0), 1L, TEN.minusHours(7), ELEVEN);
+        join(user(2L, 0), null, TEN.minusHours(1), ELEVEN);
+
+        waitlistService.offerFreedSlot(1L, TEN, ELEVEN);
+
+        // both overlap the freed hour; the first to join wins
+        assertEquals(1, offered.size());
+        assertEquals(1L, offered.get(0).getUser().getId());
+        assertEquals(TEN.minusHours(7), offered.get(0).getStartTime());
+    }
+
+    @Test
+    void holdIsCancelledWhenTheWaiterWithdrewDuringTheOffer() {
+        join(user(1L, 0), 1L, TEN, ELEVEN);
+        when(waitlistRepository.markOffered(any(), any(), any(), any())).thenReturn(0);
+
+        waitlistService.offerFreedSlot(1L, TEN, ELEVEN);
+
+        assertEquals(1, offered.size());
+        verify(bookingService).updateBookingStatus(offered.get(0).getId(), BookingStatus.CANCELLED.name());
+    }
+
+    @Test
+    void entryAlreadyOfferedCannotBeWithdrawn() {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(7L);
+        entry.setStatus(WaitlistStatus.WAITING);
+        when(waitlistRepository.findById(7L)).thenReturn(Optional.of(entry));
+        // the offer thread marked it offered after it was read
+        when(waitlistRepository.updateStatus(7L, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED)).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> waitlistService.leave(7L));
+    }
+
+    @Test
+    void unknownUserOrLaneIsNotFound() {
+        WaitlistRequest request = request(99L, 1L, TEN, ELEVEN);
+        assertThrows(ResourceNotFoundException.class, () -> waitlistService.join(request));
+
+        user(1L, 0);
+        when(laneRepository.existsById(7L)).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class, () -> waitlistService.join(request(1L, 7L, TEN, ELEVEN)));
+        assertThrows(ResourceNotFoundException.class, () -> waitlistService.leave(12345L));
+    }
+
+    private void join(User user, Long laneId, LocalDateTime start, LocalDateTime end) {
+        waitlistService.join(request(user.getId(), laneId, start, end));
+    }
+
+    private static WaitlistRequest request(Long userId, Long laneId, LocalDateTime start, LocalDateTime end) {
+        WaitlistRequest request = new WaitlistRequest();
+        request.setUserId(userId);
+        request.setLaneId(laneId);
+        request.setStartTime(start);
+        request.setEndTime(end);
+        request.setPlayers(4);
+        return request;
+    }
+
+    private User user(Long id, int loyaltyPoints) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("waiter" + id + "@example.com");
+        user.setLoyaltyPoints(loyaltyPoints);
+        users.put(id, user);
+        return user;
+    }
+
+    private static Lane lane(Long id) {
+        Lane lane = new Lane();
+        lane.setId(id);
+        lane.setNumber(id.intValue());
+        return lane;
+    }
+}